@@ -0,0 +1,108 @@
+package network;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.function.LongConsumer;
+
+/**
+ * 바이트 수 제한이 있는 줄 단위 읽기 (서버 수신용)
+ * 줄을 읽는 동안 바이트 수를 세다가 제한을 넘으면 그 줄의 나머지는 모으지 않고 줄 끝까지 건너뜀
+ * BufferedReader.readLine은 줄 전체를 메모리에 올린 뒤에야 길이를 알 수 있어서 사용하지 않음
+ *
+ * - 제한은 문자 수가 아닌 수신 바이트 수 기준 (줄바꿈 제외)
+ * - 버려진 줄은 onOversized에 바이트 수를 알리고 다음 줄을 반환
+ */
+class BoundedLineReader {
+  private static final int BUFFER_SIZE = 8192;
+  private static final int INITIAL_LINE_BYTES = 256;
+  private static final int RETAINED_LINE_BYTES = 64 * 1024; // 이보다 커진 줄 버퍼는 다 읽은 뒤 놓아 줌
+
+  private final InputStream in;
+  private final int maxLineBytes;
+  private final Charset charset;
+  private final LongConsumer onOversized;
+
+  private final byte[] buffer = new byte[BUFFER_SIZE];
+  private int pos;
+  private int limit;
+  private byte[] line = new byte[INITIAL_LINE_BYTES];
+  private int lineLength; // 지금 줄에서 모은 바이트 수
+
+  BoundedLineReader(InputStream in, int maxLineBytes, Charset charset, LongConsumer onOversized) {
+    this.in = in;
+    this.maxLineBytes = maxLineBytes;
+    this.charset = charset;
+    this.onOversized = onOversized;
+  }
+
+  /**
+   * 다음 줄 읽기 (줄 끝의 \r\n 또는 \n 제외)
+   *
+   * @return 스트림이 끝났으면 null
+   */
+  String readLine() throws IOException {
+    long total = 0; // 이 줄에서 받은 바이트 수 (제한을 넘은 뒤에도 계속 셈)
+    while (true) {
+      if (pos == limit) {
+        int n = in.read(buffer, 0, BUFFER_SIZE);
+        pos = 0;
+        limit = Math.max(0, n);
+        if (n == -1) {
+          if (total > maxLineBytes) {
+            discard(total);
+            return null;
+          }
+          return total > 0 ? decode() : null;
+        }
+      }
+
+      int start = pos;
+      while (pos < limit && buffer[pos] != '\n') {
+        pos++;
+      }
+      int count = pos - start;
+      total += count;
+      if (total <= maxLineBytes) {
+        append(start, count);
+      }
+
+      if (pos < limit) {
+        pos++; // 줄바꿈
+        if (total > maxLineBytes) {
+          discard(total);
+          total = 0;
+          continue;
+        }
+        return decode();
+      }
+    }
+  }
+
+  private void append(int start, int count) {
+    if (lineLength + count > line.length) {
+      line = java.util.Arrays.copyOf(line, Math.max(line.length * 2, lineLength + count));
+    }
+    System.arraycopy(buffer, start, line, lineLength, count);
+    lineLength += count;
+  }
+
+  private String decode() {
+    int end = lineLength > 0 && line[lineLength - 1] == '\r' ? lineLength - 1 : lineLength;
+    String text = new String(line, 0, end, charset);
+    reset();
+    return text;
+  }
+
+  private void discard(long total) {
+    reset();
+    onOversized.accept(total);
+  }
+
+  private void reset() {
+    lineLength = 0;
+    if (line.length > RETAINED_LINE_BYTES) {
+      line = new byte[INITIAL_LINE_BYTES];
+    }
+  }
+}
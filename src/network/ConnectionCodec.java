@@ -0,0 +1,139 @@
+package network;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * 연결별 스트림 구성 및 압축 지표
+ * 핸드셰이크(HELLO/WELCOME)에서 양쪽이 합의하면 텍스트 프로토콜 아래에 스트리밍 deflate 계층을 추가
+ *
+ * - 송신: DeflaterOutputStream(syncFlush) - 메시지마다 flush 경계에서 바로 전송되므로 지연 없음
+ * - 수신: InflaterInputStream
+ * - 압축 전/후 바이트 수를 양방향으로 집계
+ */
+class ConnectionCodec {
+  private final AtomicLong plainIn = new AtomicLong(); // 압축 해제 후 수신 바이트
+  private final AtomicLong wireIn = new AtomicLong(); // 실제 수신 바이트
+  private final AtomicLong plainOut = new AtomicLong(); // 압축 전 송신 바이트
+  private final AtomicLong wireOut = new AtomicLong(); // 실제 송신 바이트
+  private boolean compressed = false;
+
+  /** 핸드셰이크 줄을 버퍼 없이 한 바이트씩 읽음 (이후 바이트가 다른 계층에 넘어가도록) */
+  static String readLineUnbuffered(InputStream in) throws IOException {
+    return readLineUnbuffered(in, Integer.MAX_VALUE);
+  }
+
+  /** 최대 바이트 수를 넘는 핸드셰이크 줄은 연결 오류로 처리 */
+  static String readLineUnbuffered(InputStream in, int maxBytes) throws IOException {
+    ByteArrayOutputStream line = new ByteArrayOutputStream();
+    int b;
+    while ((b = in.read()) != -1) {
+      if (b == '\n')
+        return line.toString().replace("\r", "");
+      if (line.size() >= maxBytes)
+        throw new IOException("First line exceeds " + maxBytes + " bytes");
+      line.write(b);
+    }
+    return line.size() > 0 ? line.toString() : null;
+  }
+
+  InputStream wrapInput(InputStream raw, boolean deflate) {
+    compressed = deflate;
+    InputStream in = new CountingInputStream(raw, wireIn);
+    if (deflate) {
+      in = new SyncInflaterInputStream(in);
+    }
+    return new CountingInputStream(in, plainIn);
+  }
+
+  OutputStream wrapOutput(OutputStream raw, boolean deflate) {
+    compressed = deflate;
+    OutputStream out = new CountingOutputStream(raw, wireOut);
+    if (deflate) {
+      out = new DeflaterOutputStream(out, new Deflater(Deflater.BEST_SPEED), 8192, true);
+    }
+    return new CountingOutputStream(out, plainOut);
+  }
+
+  /** 압축률 지표 문자열 */
+  String getStats() {
+    return String.format("compressed=%s out=%dKB->%dKB (%.1f%%) in=%dKB->%dKB (%.1f%%)",
+        compressed, plainOut.get() / 1024, wireOut.get() / 1024, ratio(wireOut.get(), plainOut.get()),
+        wireIn.get() / 1024, plainIn.get() / 1024, ratio(wireIn.get(), plainIn.get()));
+  }
+
+  private static double ratio(long wire, long plain) {
+    return plain == 0 ? 100.0 : wire * 100.0 / plain;
+  }
+
+  /**
+   * InflaterInputStream.available()은 EOF 전까지 항상 1을 반환해서
+   * InputStreamReader가 이미 받은 줄을 넘기지 않고 다음 데이터를 기다리며 블로킹됨
+   * 압축 해제할 입력이 남아 있을 때만 읽을 수 있다고 알림
+   */
+  private static class SyncInflaterInputStream extends InflaterInputStream {
+    SyncInflaterInputStream(InputStream in) {
+      super(in, new Inflater(), 8192);
+    }
+
+    @Override
+    public int available() throws IOException {
+      return inf.needsInput() ? 0 : super.available();
+    }
+  }
+
+  private static class CountingInputStream extends FilterInputStream {
+    private final AtomicLong counter;
+
+    CountingInputStream(InputStream in, AtomicLong counter) {
+      super(in);
+      this.counter = counter;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = super.read();
+      if (b != -1)
+        counter.incrementAndGet();
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      int n = super.read(b, off, len);
+      if (n > 0)
+        counter.addAndGet(n);
+      return n;
+    }
+  }
+
+  private static class CountingOutputStream extends FilterOutputStream {
+    private final AtomicLong counter;
+
+    CountingOutputStream(OutputStream out, AtomicLong counter) {
+      super(out);
+      this.counter = counter;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      out.write(b);
+      counter.incrementAndGet();
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      out.write(b, off, len);
+      counter.addAndGet(len);
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package network;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import network.dto.GameScoreMessage;
+
+/**
+ * 게임 최고 점수 기록 (프로필용)
+ * 점수 반영은 단일 작업 스레드("score-ingest")에서 처리하므로 리더 스레드는 큐에 넣기만 하고,
+ * 대회 종료 등으로 결과가 몰려도 채팅 처리가 늦어지지 않음
+ *
+ * - GAME_SCORE: 사용자, 게임, 점수, 결과가 필드로 옴 (해석 불필요)
+ *   게임 프로세스의 결과 줄을 채팅 클라이언트가 로그인한 연결로 전달
+ * - GAME_RESULT: 자유 형식 문구 ("xxx님 결과 - 승리 (150 vs 120)")를 미리 컴파일한 패턴으로 해석
+ *   로그인한 연결이 보낸 경우에만 그 사용자의 점수로 반영 (문구 속 이름은 믿지 않음)
+ */
+class GameScores {
+  static final String[] GAME_TYPES = { "SPACE", "BRICK", "TYPING", "VOLLEY" }; // 프로필에 표시하는 게임
+  private static final int WIN_BONUS = 100; // 승리 시 추가 점수
+
+  private static final Pattern SCORE_VS = Pattern.compile("\\((\\d+)\\s*vs");
+  private static final Pattern ANY_NUMBER = Pattern.compile("\\d+");
+
+  private final SocketServer server;
+  // 사용자 게임 점수: username -> (gameType -> 최고 점수), 프로필에 없는 게임도 보관
+  private final Map<String, Map<String, Integer>> bestScores = new ConcurrentHashMap<>();
+
+  private final ExecutorService ingest = Executors.newSingleThreadExecutor(r -> {
+    Thread t = new Thread(r, "score-ingest");
+    t.setDaemon(true);
+    return t;
+  });
+
+  GameScores(SocketServer server) {
+    this.server = server;
+  }
+
+  /** 구조화된 결과 반영 */
+  void submit(GameScoreMessage result) {
+    ingest.execute(() -> record(result.getUsername(), result.getGameType(),
+        result.getScore() + (result.getOutcome() == GameScoreMessage.Outcome.WIN ? WIN_BONUS : 0)));
+  }
+
+  /**
+   * 자유 형식 결과 반영
+   *
+   * @param username 결과를 보낸 로그인한 연결의 사용자
+   */
+  void submitLegacy(String username, String gameType, String scoreMsg) {
+    ingest.execute(() -> {
+      try {
+        record(username, gameType, parseLegacyScore(scoreMsg));
+      } catch (NumberFormatException e) {
+        server.log("Failed to parse score from message: " + scoreMsg);
+      }
+    });
+  }
+
+  /** "(150 vs 120)"의 앞 숫자, 없으면 첫 숫자 + 승리 보너스 */
+  private static int parseLegacyScore(String scoreMsg) {
+    int score = 0;
+    Matcher m = SCORE_VS.matcher(scoreMsg);
+    if (m.find()) {
+      score = Integer.parseInt(m.group(1));
+    } else {
+      m = ANY_NUMBER.matcher(scoreMsg);
+      if (m.find()) {
+        score = Integer.parseInt(m.group());
+      }
+    }
+    if (scoreMsg.contains("승리")) {
+      score += WIN_BONUS;
+    }
+    return score;
+  }
+
+  private void record(String username, String gameType, int score) {
+    if (score <= 0)
+      return;
+    Map<String, Integer> scores = bestScores.computeIfAbsent(username, k -> new ConcurrentHashMap<>());
+    if (scores.merge(gameType, score, Math::max) == score) {
+      server.log("Updated best score for " + username + " in " + gameType + ": " + score);
+    }
+  }
+
+  /** 프로필 점수 문자열 (Format: SPACE:score,BRICK:score,TYPING:score,VOLLEY:score) */
+  String profileOf(String username) {
+    Map<String, Integer> scores = bestScores.getOrDefault(username, java.util.Collections.emptyMap());
+    StringBuilder sb = new StringBuilder();
+    for (int game = 0; game < GAME_TYPES.length; game++) {
+      if (game > 0)
+        sb.append(',');
+      sb.append(GAME_TYPES[game]).append(':').append(scores.getOrDefault(GAME_TYPES[game], 0));
+    }
+    return sb.toString();
+  }
+}
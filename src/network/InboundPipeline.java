@@ -0,0 +1,99 @@
+package network;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.SwingUtilities;
+
+/**
+ * 클라이언트 수신 파이프라인
+ * 리더 스레드 → (레인별 해석/디코딩 작업 스레드) → EDT 일괄 전달
+ *
+ * 같은 레인 키(roomId)의 작업은 항상 같은 단일 스레드에서 실행되어 방별 순서가 유지되고,
+ * 다른 방의 큰 이미지 디코딩이 메시지 전달을 막지 않음
+ *
+ * 서버가 묶어 보낸 프레임(BATCH)은 모두 해석될 때까지 EDT 전달을 보류했다가 한 번에 반영
+ */
+class InboundPipeline {
+  private static final int LANE_COUNT = 3; // 해석/디코딩 작업 스레드 수
+
+  private final ExecutorService[] lanes = new ExecutorService[LANE_COUNT];
+
+  // EDT로 전달할 작업 (한 번의 invokeLater로 모아서 실행)
+  private final ConcurrentLinkedQueue<Runnable> edtQueue = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean edtScheduled = new AtomicBoolean(false);
+  private final AtomicInteger openBatches = new AtomicInteger(); // 해석이 끝나지 않은 묶음 수 (0일 때만 EDT 예약)
+
+  InboundPipeline() {
+    for (int i = 0; i < LANE_COUNT; i++) {
+      final int lane = i;
+      lanes[i] = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "inbound-lane-" + lane);
+        t.setDaemon(true);
+        return t;
+      });
+    }
+  }
+
+  /** 해석/디코딩 작업을 레인 키에 해당하는 작업 스레드에 제출 */
+  void submit(String laneKey, Runnable task) {
+    lanes[Math.floorMod(laneKey.hashCode(), LANE_COUNT)].execute(() -> {
+      try {
+        task.run();
+      } catch (Exception e) {
+        util.ClientLogger.error("Failed to handle inbound frame", e);
+      }
+    });
+  }
+
+  /**
+   * 묶음 프레임 제출: 각 프레임은 평소처럼 레인별로 해석하고,
+   * 마지막 프레임까지 끝난 뒤에 EDT 반영을 예약
+   */
+  void submitBatch(java.util.List<String> frames, java.util.function.Function<String, String> laneKeyOf,
+      java.util.function.Consumer<String> handler) {
+    if (frames.isEmpty())
+      return;
+    AtomicInteger remaining = new AtomicInteger(frames.size());
+    openBatches.incrementAndGet();
+    for (String frame : frames) {
+      submit(laneKeyOf.apply(frame), () -> {
+        try {
+          handler.accept(frame);
+        } finally {
+          if (remaining.decrementAndGet() == 0 && openBatches.decrementAndGet() == 0) {
+            scheduleDrain();
+          }
+        }
+      });
+    }
+  }
+
+  /** UI 반영 작업을 EDT 일괄 처리 큐에 추가 */
+  void deliver(Runnable uiTask) {
+    edtQueue.add(uiTask);
+    if (openBatches.get() == 0) {
+      scheduleDrain();
+    }
+  }
+
+  private void scheduleDrain() {
+    if (!edtQueue.isEmpty() && edtScheduled.compareAndSet(false, true)) {
+      SwingUtilities.invokeLater(this::drainOnEdt);
+    }
+  }
+
+  private void drainOnEdt() {
+    edtScheduled.set(false);
+    Runnable task;
+    while ((task = edtQueue.poll()) != null) {
+      try {
+        task.run();
+      } catch (Exception e) {
+        util.ClientLogger.error("Failed to deliver inbound event", e);
+      }
+    }
+  }
+}
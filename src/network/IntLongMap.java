@@ -0,0 +1,91 @@
+package network;
+
+import java.util.Arrays;
+
+/**
+ * int -> long 맵 (개방 주소법, 박싱 없음)
+ * 방별 멤버 읽음 위치처럼 키가 작은 정수 ID인 카운터용 (모든 메서드는 동기화됨)
+ */
+final class IntLongMap {
+  private static final int FREE = -1; // 빈 칸 (키는 0 이상의 ID만 사용)
+
+  private int[] keys;
+  private long[] values;
+  private int size;
+
+  IntLongMap() {
+    keys = new int[4];
+    values = new long[4];
+    Arrays.fill(keys, FREE);
+  }
+
+  /** 항목 방문용 (박싱 없음) */
+  interface Visitor {
+    void visit(int key, long value);
+  }
+
+  synchronized void forEach(Visitor visitor) {
+    for (int i = 0; i < keys.length; i++) {
+      if (keys[i] != FREE) {
+        visitor.visit(keys[i], values[i]);
+      }
+    }
+  }
+
+  synchronized long get(int key, long defaultValue) {
+    int slot = find(keys, key);
+    return keys[slot] == key ? values[slot] : defaultValue;
+  }
+
+  /** 키가 없을 때만 저장 */
+  synchronized void putIfAbsent(int key, long value) {
+    int slot = find(keys, key);
+    if (keys[slot] != key) {
+      insert(slot, key, value);
+    }
+  }
+
+  /** 기존 값보다 클 때만 저장 (없으면 저장) */
+  synchronized void putMax(int key, long value) {
+    int slot = find(keys, key);
+    if (keys[slot] != key) {
+      insert(slot, key, value);
+    } else if (value > values[slot]) {
+      values[slot] = value;
+    }
+  }
+
+  private void insert(int slot, int key, long value) {
+    keys[slot] = key;
+    values[slot] = value;
+    if (++size * 2 > keys.length) { // 채움률 50% 이하 유지
+      resize();
+    }
+  }
+
+  private void resize() {
+    int[] oldKeys = keys;
+    long[] oldValues = values;
+    keys = new int[oldKeys.length * 2];
+    values = new long[oldKeys.length * 2];
+    Arrays.fill(keys, FREE);
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != FREE) {
+        int slot = find(keys, oldKeys[i]);
+        keys[slot] = oldKeys[i];
+        values[slot] = oldValues[i];
+      }
+    }
+  }
+
+  /** 키가 있는 칸 또는 넣을 빈 칸 (선형 탐사) */
+  private static int find(int[] keys, int key) {
+    int mask = keys.length - 1;
+    int hash = key * 0x9E3779B9;
+    int slot = (hash ^ (hash >>> 16)) & mask;
+    while (keys[slot] != FREE && keys[slot] != key) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+}
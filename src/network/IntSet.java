@@ -0,0 +1,59 @@
+package network;
+
+import java.util.Arrays;
+
+/**
+ * 정수 ID 집합 (정렬된 int 배열, 변경 시 복사)
+ * 변경은 드물고 조회와 순회가 잦은 채팅방 멤버 목록용:
+ * 읽기는 잠금 없이 연속된 배열에서 이진 탐색/순회하고, 원소당 4바이트만 사용
+ */
+final class IntSet {
+  private static final int[] EMPTY = new int[0];
+
+  private volatile int[] elements = EMPTY;
+
+  /** @return 새로 추가되었으면 true */
+  synchronized boolean add(int value) {
+    int[] current = elements;
+    int index = Arrays.binarySearch(current, value);
+    if (index >= 0)
+      return false;
+    int insertAt = -index - 1;
+    int[] next = new int[current.length + 1];
+    System.arraycopy(current, 0, next, 0, insertAt);
+    next[insertAt] = value;
+    System.arraycopy(current, insertAt, next, insertAt + 1, current.length - insertAt);
+    elements = next;
+    return true;
+  }
+
+  /** @return 있던 값을 제거했으면 true */
+  synchronized boolean remove(int value) {
+    int[] current = elements;
+    int index = Arrays.binarySearch(current, value);
+    if (index < 0)
+      return false;
+    int[] next = new int[current.length - 1];
+    System.arraycopy(current, 0, next, 0, index);
+    System.arraycopy(current, index + 1, next, index, current.length - index - 1);
+    elements = next;
+    return true;
+  }
+
+  boolean contains(int value) {
+    return value >= 0 && Arrays.binarySearch(elements, value) >= 0;
+  }
+
+  int size() {
+    return elements.length;
+  }
+
+  boolean isEmpty() {
+    return elements.length == 0;
+  }
+
+  /** 현재 원소 (오름차순, 호출 이후 변경과 무관한 스냅샷이므로 수정하지 말 것) */
+  int[] toArray() {
+    return elements;
+  }
+}
@@ -0,0 +1,242 @@
+package network;
+
+import util.ClientLogger;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 클라이언트 로컬 메시지 캐시 (사용자별 디렉토리: data/client/username)
+ * 방마다 추가 전용 로그 파일(프레임 한 줄씩)과 인덱스 파일(seq, 오프셋)을 유지해서
+ * 방을 열 때 서버 응답을 기다리지 않고 최근 메시지를 바로 표시
+ *
+ * - roomId.log: TYPE:roomId:seq:sender:... 형태의 서버 프레임 (사진은 @imageKey로 대체)
+ * - roomId.idx: 레코드마다 seq(long) + 로그 오프셋(long)
+ * - images/key: 사진 원본 바이트 (로그 압축 시 어느 방에서도 참조하지 않는 것은 삭제)
+ *
+ * 모든 파일 입출력은 단일 작업 스레드에서 실행 (쓰기는 비동기)
+ */
+class MessageStore {
+  static final int LOAD_LIMIT = 200; // 방을 열 때 읽어올 최근 메시지 수
+  private static final int COMPACT_THRESHOLD = 2000; // 이 수를 넘으면 최근 LOAD_LIMIT개만 남기고 다시 씀
+  private static final int INDEX_RECORD_BYTES = 16;
+  private static final long IMAGE_GRACE_MS = 10 * 60 * 1000; // 저장 후 ACK 전이라 아직 로그에 없는 사진 보호
+
+  private final Path dir;
+  private final Map<String, Long> lastSeqs = new ConcurrentHashMap<>(); // roomId -> 저장된 최대 seq
+
+  private final ExecutorService io = Executors.newSingleThreadExecutor(r -> {
+    Thread t = new Thread(r, "message-store");
+    t.setDaemon(true);
+    return t;
+  });
+
+  MessageStore(String username) {
+    this.dir = Paths.get("data", "client", encode(username));
+  }
+
+  /** 프레임 추가 (비동기) */
+  void append(String roomId, long seq, String frame) {
+    io.execute(() -> {
+      try {
+        Files.createDirectories(dir);
+        Path log = logPath(roomId);
+        long offset = Files.exists(log) ? Files.size(log) : 0;
+        Files.write(log, (frame + "\n").getBytes(StandardCharsets.UTF_8),
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        try (DataOutputStream idx = new DataOutputStream(Files.newOutputStream(indexPath(roomId),
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND))) {
+          idx.writeLong(seq);
+          idx.writeLong(offset);
+        }
+        lastSeqs.merge(roomId, seq, Math::max);
+
+        if (Files.size(indexPath(roomId)) / INDEX_RECORD_BYTES > COMPACT_THRESHOLD) {
+          compact(roomId);
+        }
+      } catch (IOException e) {
+        ClientLogger.error("Failed to append to message cache: " + roomId, e);
+      }
+    });
+  }
+
+  /** 사진 원본 저장 (비동기, 이미 있으면 무시) */
+  void saveImage(String imageKey, byte[] bytes) {
+    io.execute(() -> {
+      try {
+        Path file = dir.resolve("images").resolve(imageKey);
+        if (!Files.exists(file)) {
+          Files.createDirectories(file.getParent());
+          Files.write(file, bytes);
+        }
+      } catch (IOException e) {
+        ClientLogger.error("Failed to cache image: " + imageKey, e);
+      }
+    });
+  }
+
+  /** 저장된 사진 원본 (없으면 null) */
+  byte[] loadImage(String imageKey) {
+    try {
+      Path file = dir.resolve("images").resolve(imageKey);
+      return Files.exists(file) ? Files.readAllBytes(file) : null;
+    } catch (IOException e) {
+      ClientLogger.error("Failed to read cached image: " + imageKey, e);
+      return null;
+    }
+  }
+
+  /**
+   * 방의 최근 프레임 읽기 (쓰기 작업과 순서를 맞추기 위해 작업 스레드에서 읽고 결과를 기다림)
+   * 호출 스레드는 EDT가 아니어야 함
+   */
+  List<String> loadRecent(String roomId, int limit) {
+    try {
+      return io.submit(() -> readRecent(roomId, limit)).get();
+    } catch (Exception e) {
+      ClientLogger.error("Failed to load message cache: " + roomId, e);
+      return Collections.emptyList();
+    }
+  }
+
+  /** 저장된 최대 seq (없으면 0) */
+  long lastSeq(String roomId) {
+    return lastSeqs.getOrDefault(roomId, 0L);
+  }
+
+  private List<String> readRecent(String roomId, int limit) throws IOException {
+    Path log = logPath(roomId);
+    Path index = indexPath(roomId);
+    if (!Files.exists(log) || !Files.exists(index))
+      return Collections.emptyList();
+
+    long startOffset = 0;
+    long maxSeq = 0;
+    try (RandomAccessFile idx = new RandomAccessFile(index.toFile(), "r")) {
+      long count = idx.length() / INDEX_RECORD_BYTES;
+      long first = Math.max(0, count - limit);
+      for (long i = first; i < count; i++) {
+        idx.seek(i * INDEX_RECORD_BYTES);
+        long seq = idx.readLong();
+        long offset = idx.readLong();
+        if (i == first)
+          startOffset = offset;
+        maxSeq = Math.max(maxSeq, seq);
+      }
+    }
+    lastSeqs.merge(roomId, maxSeq, Math::max);
+
+    byte[] tail;
+    try (RandomAccessFile raf = new RandomAccessFile(log.toFile(), "r")) {
+      tail = new byte[(int) (raf.length() - startOffset)];
+      raf.seek(startOffset);
+      raf.readFully(tail);
+    }
+
+    List<String> frames = new ArrayList<>();
+    for (String line : new String(tail, StandardCharsets.UTF_8).split("\n")) {
+      if (!line.isEmpty()) {
+        frames.add(line);
+      }
+    }
+    return frames;
+  }
+
+  /** 오래된 레코드를 버리고 최근 레코드만 남겨 로그/인덱스를 다시 씀 */
+  private void compact(String roomId) throws IOException {
+    List<String> frames = readRecent(roomId, LOAD_LIMIT);
+    List<Long> seqs = new ArrayList<>();
+    try (DataInputStream idx = new DataInputStream(Files.newInputStream(indexPath(roomId)))) {
+      long count = Files.size(indexPath(roomId)) / INDEX_RECORD_BYTES;
+      for (long i = 0; i < count; i++) {
+        long seq = idx.readLong();
+        idx.readLong();
+        if (i >= count - frames.size()) {
+          seqs.add(seq);
+        }
+      }
+    }
+
+    Path tmpLog = dir.resolve(logPath(roomId).getFileName() + ".tmp");
+    Path tmpIndex = dir.resolve(indexPath(roomId).getFileName() + ".tmp");
+    try (DataOutputStream log = new DataOutputStream(Files.newOutputStream(tmpLog));
+        DataOutputStream idx = new DataOutputStream(Files.newOutputStream(tmpIndex))) {
+      long offset = 0;
+      for (int i = 0; i < frames.size(); i++) {
+        byte[] line = (frames.get(i) + "\n").getBytes(StandardCharsets.UTF_8);
+        idx.writeLong(seqs.get(i));
+        idx.writeLong(offset);
+        log.write(line);
+        offset += line.length;
+      }
+    }
+    Files.move(tmpLog, logPath(roomId), java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+    Files.move(tmpIndex, indexPath(roomId), java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+    ClientLogger.network("Compacted message cache for " + roomId + " to " + frames.size() + " records");
+    pruneImages();
+  }
+
+  /** 어느 방 로그에서도 참조하지 않는 사진 원본 삭제 (방끼리 같은 사진을 공유하므로 전체 로그 기준) */
+  private void pruneImages() throws IOException {
+    Path images = dir.resolve("images");
+    if (!Files.isDirectory(images))
+      return;
+
+    Set<String> referenced = new HashSet<>();
+    try (DirectoryStream<Path> logs = Files.newDirectoryStream(dir, "*.log")) {
+      for (Path log : logs) {
+        for (String line : Files.readAllLines(log, StandardCharsets.UTF_8)) {
+          int at = line.lastIndexOf(":@");
+          if (line.startsWith("ROOM_IMG:") && at != -1) {
+            referenced.add(line.substring(at + 2));
+          }
+        }
+      }
+    }
+
+    long cutoff = System.currentTimeMillis() - IMAGE_GRACE_MS;
+    int removed = 0;
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(images)) {
+      for (Path file : files) {
+        if (!referenced.contains(file.getFileName().toString())
+            && Files.getLastModifiedTime(file).toMillis() < cutoff) {
+          Files.deleteIfExists(file);
+          removed++;
+        }
+      }
+    }
+    if (removed > 0) {
+      ClientLogger.network("Removed " + removed + " unreferenced cached images");
+    }
+  }
+
+  private Path logPath(String roomId) {
+    return dir.resolve(encode(roomId) + ".log");
+  }
+
+  private Path indexPath(String roomId) {
+    return dir.resolve(encode(roomId) + ".idx");
+  }
+
+  private static String encode(String name) {
+    return URLEncoder.encode(name, StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,130 @@
+package network;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 접속하지 않은 사용자에게 보낼 이벤트 보관함 (data/server/mailbox/username.log)
+ * 방 메시지 자체는 보관하지 않고(히스토리와 읽음 위치로 복원됨) 초대, 1:1 채팅 알림처럼
+ * 접속 중이 아니면 사라지는 이벤트만 사용자별로 최대 MAX_ENTRIES_PER_USER개 보관
+ *
+ * 같은 키(예: 같은 방의 채팅 알림)는 최신 이벤트 하나만 남기고, 로그인 시 한 번에 꺼내서 비움
+ * 파일 형식: key\tframe (나중 줄이 같은 키의 이전 줄을 대체)
+ *
+ * 모든 파일 입출력은 단일 작업 스레드에서 실행 (보관은 비동기)
+ */
+class OfflineMailbox {
+  static final int MAX_ENTRIES_PER_USER = 100; // 사용자별 최대 보관 이벤트 수
+
+  private final SocketServer server;
+  private final Path dir = Paths.get("data", "server", "mailbox");
+  // username -> (key -> frame), 작업 스레드에서만 접근
+  private final Map<String, LinkedHashMap<String, String>> boxes = new HashMap<>();
+
+  private final ExecutorService io = Executors.newSingleThreadExecutor(r -> {
+    Thread t = new Thread(r, "offline-mailbox");
+    t.setDaemon(true);
+    return t;
+  });
+
+  OfflineMailbox(SocketServer server) {
+    this.server = server;
+  }
+
+  /** 이벤트 보관 (같은 키는 최신 것으로 대체, 상한을 넘으면 오래된 것부터 버림) */
+  void put(String username, String key, String frame) {
+    io.execute(() -> {
+      try {
+        LinkedHashMap<String, String> box = load(username);
+        box.remove(key);
+        box.put(key, frame);
+
+        boolean trimmed = false;
+        Iterator<String> it = box.keySet().iterator();
+        while (box.size() > MAX_ENTRIES_PER_USER && it.hasNext()) {
+          it.next();
+          it.remove();
+          trimmed = true;
+        }
+
+        Files.createDirectories(dir);
+        if (trimmed) {
+          rewrite(username, box);
+        } else {
+          Files.write(pathOf(username), (key + "\t" + frame + "\n").getBytes(StandardCharsets.UTF_8),
+              StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+      } catch (IOException e) {
+        server.log("Failed to store offline event for " + username + ": " + e.getMessage());
+      }
+    });
+  }
+
+  /**
+   * 보관된 이벤트를 보관 순서대로 꺼내고 보관함 비우기
+   * (보관 작업과 순서를 맞추기 위해 작업 스레드에서 처리하고 결과를 기다림)
+   */
+  List<String> drain(String username) {
+    try {
+      return io.submit(() -> {
+        LinkedHashMap<String, String> box = load(username);
+        boxes.remove(username);
+        Files.deleteIfExists(pathOf(username));
+        return new ArrayList<>(box.values());
+      }).get();
+    } catch (Exception e) {
+      server.log("Failed to read offline events for " + username + ": " + e.getMessage());
+      return Collections.emptyList();
+    }
+  }
+
+  private LinkedHashMap<String, String> load(String username) throws IOException {
+    LinkedHashMap<String, String> box = boxes.get(username);
+    if (box != null)
+      return box;
+
+    box = new LinkedHashMap<>();
+    Path file = pathOf(username);
+    if (Files.exists(file)) {
+      for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+        int tab = line.indexOf('\t');
+        if (tab > 0) {
+          String key = line.substring(0, tab);
+          box.remove(key);
+          box.put(key, line.substring(tab + 1));
+        }
+      }
+    }
+    boxes.put(username, box);
+    return box;
+  }
+
+  private void rewrite(String username, Map<String, String> box) throws IOException {
+    StringBuilder sb = new StringBuilder();
+    for (Map.Entry<String, String> entry : box.entrySet()) {
+      sb.append(entry.getKey()).append('\t').append(entry.getValue()).append('\n');
+    }
+    Path file = pathOf(username);
+    Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+    Files.write(tmp, sb.toString().getBytes(StandardCharsets.UTF_8));
+    Files.move(tmp, file, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  private Path pathOf(String username) {
+    return dir.resolve(URLEncoder.encode(username, StandardCharsets.UTF_8) + ".log");
+  }
+}
@@ -0,0 +1,150 @@
+package network;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 연결별 송신 대기열 (우선순위 구분)
+ * 송신 스레드는 채팅 프레임을 먼저 모두 보내고, 채팅이 없을 때만 상태/입력중 프레임을 보냄
+ *
+ * - CHAT: 방 메시지, 히스토리, 초대, 응답 등 (순서대로 모두 전송)
+ * - PRESENCE: 접속자 목록, 안읽은 수, 읽음 현황, 채팅 목록 갱신 (키별 최신 상태만 남김)
+ * - TYPING: 입력중 목록 (방별 최신 상태만 남김)
+ *
+ * 상태 프레임은 밀려 있는 동안 같은 키의 새 프레임이 오면 이전 것을 버리므로
+ * 접속자 변동이 많아도 대기열이 늘어나지 않고 채팅 전송이 늦어지지 않음
+ */
+class OutboundQueue {
+  static final int MAX_PENDING_CHAT = 10000; // 이만큼 밀리면 너무 느린 연결로 보고 종료
+  static final long MAX_PENDING_CHAT_BYTES = 64L * 1024 * 1024; // 밀린 채팅 프레임 크기 합 제한 (사진 프레임 대비)
+  private static final int MAX_BATCH_FRAMES = 256; // flush 한 번에 보내는 최대 채팅 프레임 수
+
+  enum Priority {
+    CHAT, PRESENCE, TYPING
+  }
+
+  private final ArrayDeque<String> chat = new ArrayDeque<>();
+  private long chatBytes; // 대기 중인 채팅 프레임 크기 합 (문자 수, 큰 프레임인 사진은 base64라 바이트 수와 같음)
+  private String userList; // 대기 중인 전체 접속자 목록 (이전 PRESENCE 델타를 대체)
+  private final Map<String, String> presence = new LinkedHashMap<>(); // username -> 최신 델타 항목
+  private final Map<String, String> state = new LinkedHashMap<>(); // TYPE:roomId -> 최신 프레임
+  private final Map<String, String> typing = new LinkedHashMap<>(); // TYPING_USERS:roomId -> 최신 프레임
+  private boolean closed = false;
+
+  /** 프레임의 우선순위 (모르는 프레임은 순서를 지키도록 CHAT) */
+  static Priority priorityOf(String frame) {
+    if (frame.startsWith("TYPING_USERS:"))
+      return Priority.TYPING;
+    if (frame.startsWith("USER_LIST:") || frame.startsWith("PRESENCE:") || frame.startsWith("UNREAD_UPDATE:")
+        || frame.startsWith("READ_UPTO:") || frame.startsWith("UPDATE_CHAT_LIST:"))
+      return Priority.PRESENCE;
+    return Priority.CHAT;
+  }
+
+  /**
+   * 프레임 추가
+   *
+   * @return 채팅 프레임이 MAX_PENDING_CHAT개 또는 MAX_PENDING_CHAT_BYTES를 넘게 밀려 있으면 false (추가하지 않음)
+   */
+  synchronized boolean offer(String frame) {
+    if (closed)
+      return true;
+    switch (priorityOf(frame)) {
+      case TYPING:
+        typing.put(keyOf(frame), frame);
+        break;
+      case PRESENCE:
+        if (frame.startsWith("USER_LIST:")) {
+          userList = frame;
+          presence.clear();
+        } else if (frame.startsWith("PRESENCE:")) {
+          // Format: PRESENCE:+name|status,~name|status,-name (사용자별 마지막 항목만 의미 있음)
+          for (String delta : frame.substring(9).split(",")) {
+            if (delta.length() < 2)
+              continue;
+            int bar = delta.indexOf('|');
+            String name = bar == -1 ? delta.substring(1) : delta.substring(1, bar);
+            presence.remove(name);
+            presence.put(name, delta);
+          }
+        } else {
+          String key = keyOf(frame);
+          state.remove(key);
+          state.put(key, frame);
+        }
+        break;
+      default:
+        if (chat.size() >= MAX_PENDING_CHAT || chatBytes + frame.length() > MAX_PENDING_CHAT_BYTES)
+          return false;
+        chat.add(frame);
+        chatBytes += frame.length();
+    }
+    notifyAll();
+    return true;
+  }
+
+  /**
+   * 다음에 보낼 프레임 묶음 (비어 있으면 대기)
+   * 채팅 프레임이 있으면 채팅만, 없으면 상태와 입력중 프레임을 반환
+   *
+   * @return 닫힌 뒤에는 null
+   */
+  synchronized List<String> take() throws InterruptedException {
+    while (!closed && isEmpty()) {
+      wait();
+    }
+    return closed ? null : poll();
+  }
+
+  /** take와 같은 순서로 지금 대기 중인 프레임 꺼내기 (없으면 빈 목록, 기다리지 않음) */
+  synchronized List<String> poll() {
+    List<String> frames = new ArrayList<>();
+    if (!chat.isEmpty()) {
+      while (!chat.isEmpty() && frames.size() < MAX_BATCH_FRAMES) {
+        String frame = chat.poll();
+        chatBytes -= frame.length();
+        frames.add(frame);
+      }
+      return frames;
+    }
+
+    if (userList != null) {
+      frames.add(userList);
+      userList = null;
+    }
+    if (!presence.isEmpty()) {
+      frames.add("PRESENCE:" + String.join(",", presence.values()));
+      presence.clear();
+    }
+    frames.addAll(state.values());
+    state.clear();
+    frames.addAll(typing.values());
+    typing.clear();
+    return frames;
+  }
+
+  synchronized void close() {
+    closed = true;
+    chat.clear();
+    chatBytes = 0;
+    userList = null;
+    presence.clear();
+    state.clear();
+    typing.clear();
+    notifyAll();
+  }
+
+  private boolean isEmpty() {
+    return chat.isEmpty() && userList == null && presence.isEmpty() && state.isEmpty() && typing.isEmpty();
+  }
+
+  /** TYPE:roomId:... -> TYPE:roomId */
+  private static String keyOf(String frame) {
+    int typeEnd = frame.indexOf(':');
+    int roomIdEnd = frame.indexOf(':', typeEnd + 1);
+    return roomIdEnd == -1 ? frame : frame.substring(0, roomIdEnd);
+  }
+}
@@ -0,0 +1,128 @@
+package network;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 접속자(프레즌스) 상태 관리 클래스
+ * 로그인 시 전체 목록(USER_LIST)을 한 번만 보내고,
+ * 이후 변경분은 짧은 구간 동안 모았다가 PRESENCE 델타로 전송
+ *
+ * Format: PRESENCE:+name|status,~name|status,-name
+ * (+: 접속, ~: 상태 변경, -: 접속 종료)
+ */
+class PresenceManager {
+  private static final long COALESCE_WINDOW_MS = 100; // 델타 병합 구간
+
+  private final SocketServer server;
+
+  // 현재 접속 중인 사용자: username -> statusMessage
+  private final Map<String, String> online = new LinkedHashMap<>();
+  // 마지막으로 클라이언트들에게 전송한 상태: username -> statusMessage
+  private final Map<String, String> published = new LinkedHashMap<>();
+  // 다음 flush 때 비교할 변경된 사용자
+  private final Set<String> dirty = new LinkedHashSet<>();
+  private boolean flushScheduled = false;
+
+  private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+    Thread t = new Thread(r, "presence-flush");
+    t.setDaemon(true);
+    return t;
+  });
+
+  PresenceManager(SocketServer server) {
+    this.server = server;
+  }
+
+  /** 로그인: 본인에게 전체 스냅샷 전송 후 다른 사용자에게는 델타로 알림 */
+  void userOnline(SocketServer.SocketClientHandler client) {
+    String snapshot;
+    synchronized (this) {
+      online.put(client.getUsername(), sanitize(client.getStatusMessage()));
+      markDirty(client.getUsername());
+      snapshot = buildSnapshot();
+    }
+    client.sendMessage(snapshot);
+  }
+
+  synchronized void statusChanged(String username, String status) {
+    if (!online.containsKey(username))
+      return;
+    online.put(username, sanitize(status));
+    markDirty(username);
+  }
+
+  synchronized void userOffline(String username) {
+    if (online.remove(username) != null) {
+      markDirty(username);
+    }
+  }
+
+  private void markDirty(String username) {
+    dirty.add(username);
+    if (!flushScheduled) {
+      flushScheduled = true;
+      scheduler.schedule(this::flush, COALESCE_WINDOW_MS, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private String buildSnapshot() {
+    StringBuilder sb = new StringBuilder("USER_LIST:");
+    for (Map.Entry<String, String> entry : online.entrySet()) {
+      sb.append(entry.getKey()).append("|").append(entry.getValue()).append(",");
+    }
+    if (sb.charAt(sb.length() - 1) == ',') {
+      sb.setLength(sb.length() - 1);
+    }
+    return sb.toString();
+  }
+
+  /** 병합 구간 동안 쌓인 변경분을 하나의 PRESENCE 프레임으로 전송 */
+  private void flush() {
+    List<String> deltas = new ArrayList<>();
+    String snapshot;
+    synchronized (this) {
+      flushScheduled = false;
+      for (String username : dirty) {
+        String current = online.get(username);
+        String previous = published.get(username);
+        if (current == null && previous != null) {
+          published.remove(username);
+          deltas.add("-" + username);
+        } else if (current != null && previous == null) {
+          published.put(username, current);
+          deltas.add("+" + username + "|" + current);
+        } else if (current != null && !current.equals(previous)) {
+          published.put(username, current);
+          deltas.add("~" + username + "|" + current);
+        }
+        // 구간 내에 접속 후 바로 종료한 경우 등은 전송하지 않음
+      }
+      dirty.clear();
+      snapshot = deltas.isEmpty() ? null : buildSnapshot();
+    }
+    if (deltas.isEmpty())
+      return;
+
+    // 델타를 모르는 레거시 클라이언트에는 전체 목록 전송
+    String message = "PRESENCE:" + String.join(",", deltas);
+    for (SocketServer.SocketClientHandler client : server.getClients()) {
+      if (client.getUsername() != null) {
+        client.sendMessage(client.supports(Protocol.CAP_PRESENCE) ? message : snapshot);
+      }
+    }
+  }
+
+  private static String sanitize(String status) {
+    if (status == null)
+      return "";
+    return status.replace(",", " ").replace("|", " ");
+  }
+}
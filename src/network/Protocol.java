@@ -0,0 +1,114 @@
+package network;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 프로토콜 버전/기능 협상 정의
+ *
+ * Client: HELLO:version:cap1,cap2,...
+ * Server: WELCOME:version:agreedCaps:maxFrame=bytes,batchWindow=ms,idleTimeout=ms
+ * 이후 양쪽 모두 합의된 코덱으로 전환하고 클라이언트가 LOGIN:username 전송
+ *
+ * HELLO 없이 바로 LOGIN:username을 보내는 클라이언트는 레거시(버전 1)로 취급:
+ * 압축 없음, seq 없는 방 프레임, 델타 대신 전체 USER_LIST, 입력중 표시/읽음 현황/BATCH 묶음 없음
+ */
+final class Protocol {
+  static final int VERSION = 2; // 현재 프로토콜 버전 (레거시 LOGIN은 1)
+
+  // 기능 이름
+  static final String CAP_DEFLATE = "deflate"; // 스트림 압축
+  static final String CAP_SEQ = "seq"; // 방 프레임 순번 및 ROOM_ACK
+  static final String CAP_PRESENCE = "presence"; // PRESENCE 델타
+  static final String CAP_TYPING = "typing"; // TYPING_USERS 집계
+  static final String CAP_RECEIPTS = "receipts"; // READ_UPTO 읽음 현황
+  static final String CAP_BATCH = "batch"; // BATCH:n 묶음 프레임
+
+  // 서버가 지원하는 기능 (순서대로 협상 결과에 표시)
+  static final String[] SERVER_CAPS = { CAP_DEFLATE, CAP_SEQ, CAP_PRESENCE, CAP_TYPING, CAP_RECEIPTS, CAP_BATCH };
+  // 클라이언트가 요청하는 기능
+  static final String[] CLIENT_CAPS = { CAP_DEFLATE, CAP_SEQ, CAP_PRESENCE, CAP_TYPING, CAP_RECEIPTS, CAP_BATCH };
+
+  // 서버 제한값
+  static final int MAX_FRAME_BYTES = 16 * 1024 * 1024; // 한 줄(프레임) 최대 길이
+  static final int BATCH_WINDOW_MS = 10; // 서버 송신 묶음 대기 시간 (0: 묶지 않음)
+  static final int IDLE_TIMEOUT_MS = 30000; // 이 시간 동안 아무 줄도 받지 못한 연결은 종료
+
+  private Protocol() {
+  }
+
+  /** 클라이언트가 요청한 기능 중 서버가 지원하는 것만 남김 */
+  static Set<String> negotiate(String requested) {
+    Set<String> wanted = parseCaps(requested);
+    Set<String> agreed = new LinkedHashSet<>();
+    for (String cap : SERVER_CAPS) {
+      if (wanted.contains(cap)) {
+        agreed.add(cap);
+      }
+    }
+    return agreed;
+  }
+
+  static Set<String> parseCaps(String caps) {
+    if (caps == null || caps.isEmpty())
+      return Collections.emptySet();
+    Set<String> result = new LinkedHashSet<>();
+    for (String cap : caps.split(",")) {
+      if (!cap.trim().isEmpty()) {
+        result.add(cap.trim());
+      }
+    }
+    return result;
+  }
+
+  /** WELCOME 제한값 문자열 */
+  static String limits() {
+    return "maxFrame=" + MAX_FRAME_BYTES + ",batchWindow=" + BATCH_WINDOW_MS + ",idleTimeout=" + IDLE_TIMEOUT_MS;
+  }
+
+  /** 제한값 문자열에서 특정 값 읽기 (없으면 기본값) */
+  static int limit(String limits, String name, int defaultValue) {
+    if (limits != null) {
+      for (String pair : limits.split(",")) {
+        String[] kv = pair.split("=", 2);
+        if (kv.length == 2 && kv[0].trim().equals(name)) {
+          try {
+            return Integer.parseInt(kv[1].trim());
+          } catch (NumberFormatException e) {
+            return defaultValue;
+          }
+        }
+      }
+    }
+    return defaultValue;
+  }
+
+  /**
+   * 합의된 기능에 맞게 서버 → 클라이언트 프레임 변환
+   *
+   * @return 전송할 프레임 (해당 클라이언트가 이해하지 못하는 프레임이면 null)
+   */
+  static String downgrade(String frame, Set<String> caps) {
+    if (!caps.contains(CAP_SEQ)) {
+      if (frame.startsWith("ROOM_ACK:"))
+        return null;
+      int start = frame.startsWith("HISTORY:") ? 8 : 0;
+      if (frame.startsWith("ROOM_MSG:", start) || frame.startsWith("ROOM_IMG:", start)
+          || frame.startsWith("ROOM_EMOJI:", start) || frame.startsWith("ROOM_GAME_INVITE:", start)) {
+        // TYPE:roomId:seq:rest -> TYPE:roomId:rest
+        int typeEnd = frame.indexOf(':', start);
+        int roomIdEnd = frame.indexOf(':', typeEnd + 1);
+        int seqEnd = roomIdEnd == -1 ? -1 : frame.indexOf(':', roomIdEnd + 1);
+        if (seqEnd != -1) {
+          return frame.substring(0, roomIdEnd) + frame.substring(seqEnd);
+        }
+      }
+    }
+    if (!caps.contains(CAP_TYPING) && frame.startsWith("TYPING_USERS:"))
+      return null;
+    if (!caps.contains(CAP_RECEIPTS) && frame.startsWith("READ_UPTO:"))
+      return null;
+    return frame;
+  }
+}
@@ -0,0 +1,62 @@
+package network;
+
+/**
+ * 채팅방 읽음 현황 (서버가 보낸 멤버별 읽음 위치 분포)
+ * 메시지마다 안읽은 수를 받는 대신 "이 seq까지 읽은 멤버 수" 목록만 받아서
+ * 화면에 있는 말풍선의 안읽은 수를 직접 계산
+ *
+ * Format: READ_UPTO:roomId:floor:seq1*count1,seq2*count2,... (seq 오름차순)
+ * - 방을 보고 있는 멤버와 마지막 메시지까지 읽은 멤버는 목록에서 생략
+ * - floor 이하의 메시지는 계산 대상이 아님 (서버가 그보다 오래된 위치는 floor로 합쳐서 보냄)
+ */
+public final class ReadReceipts {
+  private final long floor; // 이 seq 이하의 메시지는 갱신하지 않음
+  private final long[] seqs; // 읽음 위치 (오름차순)
+  private final int[] readersBelow; // readersBelow[i]: seqs[0..i-1] 위치에 있는 멤버 수 누적
+
+  private ReadReceipts(long floor, long[] seqs, int[] readersBelow) {
+    this.floor = floor;
+    this.seqs = seqs;
+    this.readersBelow = readersBelow;
+  }
+
+  /** READ_UPTO 프레임의 floor:분포 부분 해석 (잘못된 형식이면 null) */
+  static ReadReceipts parse(String floorAndEntries) {
+    String[] parts = floorAndEntries.split(":", 2);
+    try {
+      long floor = Long.parseLong(parts[0]);
+      String[] entries = parts.length == 2 && !parts[1].isEmpty() ? parts[1].split(",") : new String[0];
+      long[] seqs = new long[entries.length];
+      int[] readersBelow = new int[entries.length + 1];
+      for (int i = 0; i < entries.length; i++) {
+        int star = entries[i].indexOf('*');
+        seqs[i] = Long.parseLong(entries[i].substring(0, star));
+        readersBelow[i + 1] = readersBelow[i] + Integer.parseInt(entries[i].substring(star + 1));
+      }
+      return new ReadReceipts(floor, seqs, readersBelow);
+    } catch (RuntimeException e) {
+      return null;
+    }
+  }
+
+  /**
+   * 해당 메시지를 아직 읽지 않은 멤버 수
+   *
+   * @return 계산할 수 없는 메시지(seq 없음, floor 이하)면 -1
+   */
+  public int unreadCount(long seq) {
+    if (seq <= floor)
+      return -1;
+    // seq보다 작은 읽음 위치의 개수 (이진 탐색)
+    int low = 0, high = seqs.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (seqs[mid] < seq) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return readersBelow[low];
+  }
+}
@@ -0,0 +1,103 @@
+package network;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 채팅방 액터 실행기
+ * 방마다 작업 큐(mailbox)를 두고 코어 수만큼의 공용 스레드 풀에서 실행
+ *
+ * - 같은 방의 작업은 한 번에 하나씩 도착 순서대로 실행 (방 상태 변경과 전송에 잠금 불필요)
+ * - 서로 다른 방의 작업은 풀의 여러 스레드에서 병렬로 실행
+ * - 작업이 많은 방도 한 번에 DRAIN_BATCH개만 처리하고 다시 줄을 서서 다른 방을 막지 않음
+ * - 파일로 옮겨진 방의 액터는 제거하고 다음 작업이 들어오면 새로 만듦
+ */
+class RoomActors {
+  private static final int DRAIN_BATCH = 64; // 한 번 실행할 때 처리할 최대 작업 수
+
+  private final SocketServer server;
+  private final Map<String, Actor> actors = new ConcurrentHashMap<>();
+  private final ExecutorService pool;
+
+  RoomActors(SocketServer server) {
+    this.server = server;
+    AtomicInteger threadId = new AtomicInteger();
+    this.pool = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()), r -> {
+      Thread t = new Thread(r, "room-actor-" + threadId.incrementAndGet());
+      t.setDaemon(true);
+      return t;
+    });
+  }
+
+  /** 방 작업 추가 (호출 스레드는 기다리지 않음, 잠든 방은 실행 전에 불러옴) */
+  void submit(String roomId, Runnable task) {
+    enqueue(roomId, () -> {
+      server.lifecycle.access(roomId);
+      task.run();
+    });
+  }
+
+  /** 방 사용으로 치지 않는 관리 작업 추가 (유휴 방 정리 등) */
+  void submitMaintenance(String roomId, Runnable task) {
+    enqueue(roomId, task);
+  }
+
+  /**
+   * 방 액터 제거 (파일로 옮겨진 방의 액터 스레드에서 마지막에 호출)
+   * 그 사이 들어온 작업이 있으면 그대로 두어 이 액터에서 이어서 실행
+   */
+  void retire(String roomId) {
+    actors.computeIfPresent(roomId, (k, actor) -> actor.mailbox.isEmpty() ? null : actor);
+  }
+
+  /** 작업 추가와 retire의 제거가 같은 키에서 원자적으로 실행되도록 compute 안에서 추가 */
+  private void enqueue(String roomId, Runnable task) {
+    Actor actor = actors.compute(roomId, (k, current) -> {
+      Actor target = current != null ? current : new Actor(k);
+      target.mailbox.add(task);
+      return target;
+    });
+    actor.schedule();
+  }
+
+  private final class Actor implements Runnable {
+    private final String roomId;
+    private final Queue<Runnable> mailbox = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+    Actor(String roomId) {
+      this.roomId = roomId;
+    }
+
+    void schedule() {
+      if (scheduled.compareAndSet(false, true)) {
+        pool.execute(this);
+      }
+    }
+
+    @Override
+    public void run() {
+      for (int i = 0; i < DRAIN_BATCH; i++) {
+        Runnable task = mailbox.poll();
+        if (task == null)
+          break;
+        try {
+          task.run();
+        } catch (Exception e) {
+          server.log("Room task failed in " + roomId + ": " + e);
+        }
+      }
+      scheduled.set(false);
+      // 처리 중에 들어온 작업이 있으면 다시 예약 (enqueue와 경쟁해도 한 번만 예약됨)
+      if (!mailbox.isEmpty() && scheduled.compareAndSet(false, true)) {
+        pool.execute(this);
+      }
+    }
+  }
+}
@@ -0,0 +1,164 @@
+package network;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 채팅방 상태 수명 관리 (data/server/rooms/roomId.room)
+ * 일정 시간(idleTtl) 동안 아무 작업도 없고 보고 있는 사용자도 없는 방은
+ * 히스토리, 순번, 마지막 메시지, 읽음 위치를 파일로 옮기고 메모리에서 제거
+ * 다음에 그 방의 작업이 액터에 들어오면 실행 전에 파일에서 다시 불러옴
+ *
+ * 멤버 목록(ID 몇 개)은 채팅 목록과 초대 처리에 필요하므로 메모리에 남기고, 방 액터는 제거
+ * 서버를 다시 시작하면 남아 있는 파일로 잠든 방 목록을 복원 (멤버 목록은 복원되지 않으므로 다시 입장할 때 불러옴)
+ * 모든 불러오기/내보내기는 해당 방의 액터 스레드에서 실행되어 방 작업과 겹치지 않음
+ */
+class RoomLifecycle {
+  static final long DEFAULT_IDLE_TTL_MS = 30 * 60 * 1000; // 기본 유휴 방 정리 시간
+  private static final long SWEEP_INTERVAL_MS = 60 * 1000; // 유휴 방 검사 간격
+  private static final long LOAD_TIMEOUT_MS = 2000; // 로그인 시 채팅 목록 전송 전 방 불러오기 대기 한도
+
+  private final SocketServer server;
+  private final Path dir = Paths.get("data", "server", "rooms");
+  private volatile long idleTtlMs = DEFAULT_IDLE_TTL_MS;
+
+  // 메모리에 있는 방 -> 마지막 작업 시각
+  private final Map<String, Long> lastAccess = new ConcurrentHashMap<>();
+  // 파일로 옮겨진 방
+  private final Set<String> dormant = ConcurrentHashMap.newKeySet();
+
+  RoomLifecycle(SocketServer server) {
+    this.server = server;
+  }
+
+  void setIdleTtl(long idleTtlMs) {
+    this.idleTtlMs = idleTtlMs;
+  }
+
+  /** 이전 실행에서 내보낸 방 복원 후 주기적인 유휴 방 검사 시작 */
+  void start() {
+    restoreDormant();
+    server.timers.schedule(Math.min(SWEEP_INTERVAL_MS, idleTtlMs), this::sweep);
+  }
+
+  /** 방 작업 직전 호출 (액터 스레드): 잠든 방이면 불러오고 마지막 작업 시각 갱신 */
+  void access(String roomId) {
+    if (dormant.remove(roomId)) {
+      load(roomId);
+    }
+    lastAccess.put(roomId, System.currentTimeMillis());
+  }
+
+  boolean isDormant(String roomId) {
+    return dormant.contains(roomId);
+  }
+
+  /**
+   * 잠든 방들을 각 액터에서 불러오기 (채팅 목록 스냅샷 전, 호출 스레드는 기다리지 않음)
+   *
+   * @return 모두 불러오면 완료 (LOAD_TIMEOUT_MS가 지나면 불러온 데까지로 완료)
+   */
+  CompletableFuture<Void> whenLoaded(Collection<String> roomIds) {
+    List<CompletableFuture<Void>> loads = new ArrayList<>();
+    for (String roomId : roomIds) {
+      CompletableFuture<Void> loaded = new CompletableFuture<>();
+      server.roomActors.submit(roomId, () -> loaded.complete(null));
+      loads.add(loaded);
+    }
+    return CompletableFuture.allOf(loads.toArray(new CompletableFuture<?>[0]))
+        .orTimeout(LOAD_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+        .exceptionally(e -> {
+          server.log("Timed out loading rooms " + roomIds + ": " + e);
+          return null;
+        });
+  }
+
+  private void sweep() {
+    long now = System.currentTimeMillis();
+    for (Map.Entry<String, Long> room : lastAccess.entrySet()) {
+      if (now - room.getValue() >= idleTtlMs) {
+        String roomId = room.getKey();
+        // 검사 작업 자체는 방 사용으로 치지 않음
+        server.roomActors.submitMaintenance(roomId, () -> spillIfIdle(roomId));
+      }
+    }
+    server.timers.schedule(Math.min(SWEEP_INTERVAL_MS, idleTtlMs), this::sweep);
+  }
+
+  /** 액터에서 다시 확인 후 유휴 상태면 파일로 내보내고 메모리에서 제거 */
+  private void spillIfIdle(String roomId) {
+    Long last = lastAccess.get(roomId);
+    if (last == null || System.currentTimeMillis() - last < idleTtlMs || !server.getActiveUsers(roomId).isEmpty())
+      return;
+
+    List<String> lines = new ArrayList<>();
+    server.exportRoomState(roomId, lines);
+    server.unread.exportRoom(roomId, lines);
+    try {
+      Files.createDirectories(dir);
+      Path file = pathOf(roomId);
+      Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+      Files.write(tmp, lines, StandardCharsets.UTF_8);
+      Files.move(tmp, file, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      server.log("Failed to spill room " + roomId + ": " + e.getMessage());
+      return;
+    }
+
+    server.dropRoomState(roomId);
+    server.unread.dropRoom(roomId);
+    lastAccess.remove(roomId);
+    dormant.add(roomId);
+    server.log("Spilled idle room " + roomId + " (" + lines.size() + " lines)");
+    server.roomActors.retire(roomId);
+  }
+
+  /** 디렉터리에 남아 있는 방 파일을 잠든 방으로 등록 (쓰다 만 .tmp 파일은 제외) */
+  private void restoreDormant() {
+    if (!Files.isDirectory(dir))
+      return;
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.room")) {
+      for (Path file : files) {
+        String name = file.getFileName().toString();
+        dormant.add(URLDecoder.decode(name.substring(0, name.length() - ".room".length()), StandardCharsets.UTF_8));
+      }
+    } catch (IOException e) {
+      server.log("Failed to list spilled rooms: " + e.getMessage());
+      return;
+    }
+    if (!dormant.isEmpty()) {
+      server.log("Found " + dormant.size() + " spilled rooms on disk");
+    }
+  }
+
+  private void load(String roomId) {
+    Path file = pathOf(roomId);
+    try {
+      List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+      server.importRoomState(roomId, lines);
+      server.unread.importRoom(roomId, lines);
+      Files.deleteIfExists(file);
+      server.log("Loaded room " + roomId + " from disk");
+    } catch (IOException e) {
+      server.log("Failed to load room " + roomId + ": " + e.getMessage());
+    }
+  }
+
+  private Path pathOf(String roomId) {
+    return dir.resolve(URLEncoder.encode(roomId, StandardCharsets.UTF_8) + ".room");
+  }
+}
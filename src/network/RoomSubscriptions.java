@@ -0,0 +1,119 @@
+package network;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * 채팅방별 수신 이벤트 구독 관리 클래스
+ * 수신 이벤트를 roomId 기준으로 해당 방을 구독 중인 화면에만 전달하고,
+ * 방마다 최근 이벤트를 제한된 크기로 보관해서 화면을 다시 열 때 히스토리 재요청 없이 복원
+ *
+ * - 이번 접속에서 처음 여는 방: 보관된 이벤트를 버리고 입장 (서버 히스토리가 대신함)
+ * - 이미 입장한 방: 보관된 이벤트를 순서대로 다시 전달 (네트워크 요청 없음)
+ */
+class RoomSubscriptions {
+  static final int MAX_EVENTS_PER_ROOM = 200; // 방별 보관 이벤트 수 (서버 히스토리보다 크게)
+  private static final int MAX_SEEN_SEQS = 1024; // 중복 확인용으로 기억할 방별 seq 수
+
+  private final InboundPipeline pipeline;
+  private final Map<String, SocketClient.MessageListener> subscribers = new HashMap<>();
+  private final Map<String, Deque<Consumer<SocketClient.MessageListener>>> recent = new HashMap<>();
+  private final Set<String> joinedRooms = new HashSet<>(); // 이번 접속에서 입장한 방
+  private final Set<String> overflowedRooms = new HashSet<>(); // 보관 한도를 넘어 앞부분이 잘린 방
+  private final Map<String, java.util.LinkedHashSet<Long>> seenSeqs = new HashMap<>(); // 이미 표시한 seq
+
+  RoomSubscriptions(InboundPipeline pipeline) {
+    this.pipeline = pipeline;
+  }
+
+  /**
+   * 방 이벤트 전달 (구독자가 없으면 보관만 함)
+   *
+   * @return 구독 중인 화면에 전달되었으면 true
+   */
+  synchronized boolean dispatch(String roomId, Consumer<SocketClient.MessageListener> event) {
+    record(roomId, event);
+    SocketClient.MessageListener listener = subscribers.get(roomId);
+    if (listener == null)
+      return false;
+    pipeline.deliver(() -> event.accept(listener));
+    return true;
+  }
+
+  /** 보관하지 않는 일시적 이벤트 전달 (입력중 표시 등) */
+  synchronized void dispatchTransient(String roomId, Consumer<SocketClient.MessageListener> event) {
+    SocketClient.MessageListener listener = subscribers.get(roomId);
+    if (listener != null) {
+      pipeline.deliver(() -> event.accept(listener));
+    }
+  }
+
+  /** 화면에 이미 표시된 로컬 이벤트(내가 보낸 메시지)를 보관만 함 */
+  synchronized void record(String roomId, Consumer<SocketClient.MessageListener> event) {
+    Deque<Consumer<SocketClient.MessageListener>> events = recent.get(roomId);
+    if (events == null) {
+      events = new ArrayDeque<>();
+      recent.put(roomId, events);
+    }
+    if (events.size() >= MAX_EVENTS_PER_ROOM) {
+      events.removeFirst();
+      overflowedRooms.add(roomId);
+    }
+    events.addLast(event);
+  }
+
+  /**
+   * 방 구독 시작
+   *
+   * @return 서버에 입장(히스토리 요청)이 필요하면 true
+   */
+  synchronized boolean subscribe(String roomId, SocketClient.MessageListener listener) {
+    subscribers.put(roomId, listener);
+    if (joinedRooms.add(roomId) || overflowedRooms.contains(roomId)) {
+      // 처음 입장하거나 보관분이 잘린 경우 서버 히스토리로 대체
+      // (아직 화면에 표시된 적이 없으므로 중복 확인 기록도 초기화)
+      recent.remove(roomId);
+      overflowedRooms.remove(roomId);
+      seenSeqs.remove(roomId);
+      return true;
+    }
+
+    Deque<Consumer<SocketClient.MessageListener>> events = recent.get(roomId);
+    if (events != null) {
+      for (Consumer<SocketClient.MessageListener> event : events) {
+        pipeline.deliver(() -> event.accept(listener));
+      }
+    }
+    return false;
+  }
+
+  /** 방 구독 해제 (해당 화면이 아직 구독자인 경우만) */
+  synchronized void unsubscribe(String roomId, SocketClient.MessageListener listener) {
+    subscribers.remove(roomId, listener);
+  }
+
+  /**
+   * 처음 보는 seq인지 확인하고 기록 (로컬 캐시, 히스토리, 실시간 수신 사이의 중복 제거)
+   * 서버의 seq는 방마다 증가하지만 동시에 보낸 메시지는 순서가 바뀌어 도착할 수 있으므로 집합으로 확인
+   */
+  synchronized boolean markSeen(String roomId, long seq) {
+    java.util.LinkedHashSet<Long> seen = seenSeqs.get(roomId);
+    if (seen == null) {
+      seen = new java.util.LinkedHashSet<>();
+      seenSeqs.put(roomId, seen);
+    }
+    if (!seen.add(seq))
+      return false;
+    if (seen.size() > MAX_SEEN_SEQS) {
+      java.util.Iterator<Long> it = seen.iterator();
+      it.next();
+      it.remove();
+    }
+    return true;
+  }
+}
@@ -17,28 +17,53 @@ public class SocketClient {
   private int port; // 서버 포트 번호
   private Socket socket; // 소켓 연결
   private BufferedReader reader; // 서버로부터 데이터 수신
-  private PrintWriter writer; // 서버로 데이터 전송
-  private final Object writerLock = new Object(); // 소켓 쓰기 동기화 락
+  private PrintWriter writer; // 서버로 데이터 전송 (송신 스레드 전용)
+  private final ConnectionCodec codec = new ConnectionCodec(); // 스트림 구성 및 압축 지표
+  private static final int HANDSHAKE_TIMEOUT_MS = 5000; // WELCOME 대기 시간
+  private volatile java.util.Set<String> serverCaps = java.util.Collections.emptySet(); // 서버와 합의된 기능
+  private volatile int maxFrameBytes = Protocol.MAX_FRAME_BYTES; // 서버가 받는 최대 프레임 길이
+  private volatile int batchWindowMs = 0; // 서버 송신 묶음 대기 시간
+  private static final int HEARTBEAT_INTERVAL_MS = 10000; // 기본 PING 간격
+  private volatile int heartbeatIntervalMs = HEARTBEAT_INTERVAL_MS; // 서버 유휴 종료 시간의 1/3 이하
+  // 송신 대기 프레임 큐 (단일 송신 스레드가 순서대로 묶어서 전송)
+  private final java.util.concurrent.BlockingQueue<java.util.function.Supplier<String>> outbound = new java.util.concurrent.LinkedBlockingQueue<>();
+  private static final int MAX_BATCH_FRAMES = 64; // flush 한 번에 묶는 최대 프레임 수
+  private Thread senderThread; // 송신 스레드
   private volatile boolean running = false; // 연결 상태 플래그
-  private MessageListener messageListener; // 메시지 수신 리스너
+  private MessageListener messageListener; // 방 정보가 없는 메시지 수신 리스너
   private String username; // 현재 사용자 이름
   private Thread heartbeatThread; // 하트비트 스레드 (연결 유지)
+  private final InboundPipeline pipeline = new InboundPipeline(); // 수신 프레임 해석/디코딩 파이프라인
+  private final RoomSubscriptions rooms = new RoomSubscriptions(pipeline); // 방별 수신 이벤트 구독
+  private MessageStore store; // 로컬 메시지 캐시 (로그인 사용자별)
+  // roomId -> ACK 대기 중인 내가 보낸 프레임 (seq를 받으면 캐시에 저장)
+  // (송신 큐에 넣은 순서대로 등록, 실제로 보내지 않은 프레임은 dropped 표시)
+  private final java.util.Map<String, java.util.Queue<PendingAck>> pendingAcks = new java.util.concurrent.ConcurrentHashMap<>();
+  private final java.util.concurrent.atomic.AtomicLong legacySeq = new java.util.concurrent.atomic.AtomicLong(); // 순번 없는 이전 서버 프레임의 표시 순서
 
   public String getUsername() {
     return username;
   }
 
-  /** 메시지 수신 리스너 인터페이스 */
+  /**
+   * 메시지 수신 리스너 인터페이스 (모든 콜백은 EDT에서 호출됨)
+   * roomId는 이벤트가 속한 채팅방 (방 정보가 없는 프레임은 null)
+   */
+  // seq: 서버가 부여한 방 메시지 순번 (아직 모르면 0)
   public interface MessageListener {
-    void onMessageReceived(String message); // 텍스트 메시지 수신
+    void onMessageReceived(String roomId, long seq, String message); // 텍스트 메시지 수신
+
+    void onImageReceived(String roomId, long seq, String sender, String imageKey); // 이미지 수신 (ImageCache 키)
 
-    void onImageReceived(String sender, javax.swing.ImageIcon image); // 이미지 수신
+    void onEmojiReceived(String roomId, long seq, String sender, String emojiName); // 이모티콘 수신
 
-    void onEmojiReceived(String sender, String emojiName); // 이모티콘 수신
+    void onGameInviteReceived(String roomId, long seq, String sender, String gameType); // 게임 초대 수신
 
-    void onGameInviteReceived(String sender, String gameType); // 게임 초대 수신
+    void onTypingUsersReceived(String roomId, java.util.List<String> usernames); // 입력중인 사용자 목록 수신 (본인 제외)
 
-    void onTypingStatusReceived(String username, boolean isTyping); // 입력중 상태 수신
+    void onMessageAcked(String roomId, long seq); // 내가 보낸 메시지에 순번 부여됨 (보낸 순서대로, 보내지 못한 메시지는 0)
+
+    void onReadReceiptsReceived(String roomId, ReadReceipts receipts); // 방 읽음 현황 갱신
   }
 
   /** 생성자: 서버 주소와 포트 설정 */
@@ -47,20 +72,80 @@ public class SocketClient {
     this.port = port;
   }
 
+  /** 방 정보가 없는 이벤트(1:1 IMG, 기타 프레임)를 받을 리스너 */
   public void setMessageListener(MessageListener listener) {
     this.messageListener = listener;
   }
 
+  /**
+   * 채팅방 화면 열기: 해당 방 이벤트 구독 시작
+   * 이번 접속에서 처음 여는 방만 서버에 입장해서 히스토리를 받고,
+   * 이미 입장한 방은 보관된 최근 이벤트를 다시 전달
+   */
+  public void openRoom(String roomId, MessageListener listener) {
+    if (rooms.subscribe(roomId, listener)) {
+      if (!supportsFeature(Protocol.CAP_SEQ)) {
+        // 이전 서버는 입장할 때마다 히스토리 전체를 보내므로 로컬 캐시를 쓰지 않음
+        joinRoom(roomId, 0);
+        return;
+      }
+      // 입장 요청은 호출 순서대로 송신 큐에 바로 넣어서 뒤이은 INVITE 등이 앞지르지 않게 하고,
+      // 요청할 seq는 방 레인에서 로컬 캐시를 먼저 표시한 뒤 채움 (송신 스레드가 그때까지 대기)
+      // (같은 레인이므로 이후 수신 프레임은 캐시 표시가 끝난 다음에 처리됨)
+      java.util.concurrent.CompletableFuture<Long> cachedSeq = new java.util.concurrent.CompletableFuture<>();
+      pipeline.submit(roomId, () -> {
+        try {
+          java.util.List<String> cached = store.loadRecent(roomId, MessageStore.LOAD_LIMIT);
+          for (String frame : cached) {
+            handleRoomFrame(frame, false, false);
+          }
+          ClientLogger.network("Rendered " + cached.size() + " cached messages for " + roomId);
+        } finally {
+          cachedSeq.complete(store.lastSeq(roomId));
+        }
+      });
+      joinRoom(roomId, cachedSeq);
+    } else {
+      ClientLogger.network("Reopening room from local buffer: " + roomId);
+      resumeRoom(roomId);
+    }
+  }
+
+  /** 채팅방 화면 닫기 (이후 이벤트는 보관만 됨) */
+  public void closeRoom(String roomId, MessageListener listener) {
+    rooms.unsubscribe(roomId, listener);
+  }
+
+  /**
+   * 이미 입장했던 방을 다시 보기 시작 (서버에 다시 입장해서 읽음 위치를 갱신)
+   * 로컬에 있는 마지막 seq 이후의 히스토리만 요청하므로 보통 추가 전송이 없음
+   */
+  public void resumeRoom(String roomId) {
+    if (!supportsFeature(Protocol.CAP_SEQ))
+      return; // 이전 서버는 읽음 위치가 없고, 다시 입장하면 히스토리 전체를 또 보냄
+    joinRoom(roomId, store.lastSeq(roomId));
+  }
+
+  /** 채팅방 화면을 더 이상 보지 않음 (이후 메시지는 서버에서 안읽음으로 집계) */
+  public void leaveRoom(String roomId) {
+    if (!supportsFeature(Protocol.CAP_SEQ))
+      return; // 이전 서버에는 LEAVE_ROOM이 없음
+    ClientLogger.network("Leaving room: " + roomId);
+    send("LEAVE_ROOM:" + roomId + ":" + username);
+  }
+
   private UserListListener userListListener;
 
   public interface UserListListener {
     void onUserListUpdated(String[] users);
 
-    void onUserJoined(String username);
-
-    void onUserLeft(String username);
+    /** 접속자 델타 수신 (updated: "name|status" 형식, removed: 사용자 이름) */
+    void onPresenceChanged(java.util.List<String> updated, java.util.List<String> removed);
 
     void onChatListUpdate(String roomId, String lastMessage);
+
+    /** 로그인 직후 채팅방 목록 스냅샷 수신 (최근 메시지 순) */
+    void onRoomListReceived(java.util.List<network.dto.RoomListMessage.Entry> rooms);
   }
 
   public void setUserListListener(UserListListener listener) {
@@ -111,6 +196,8 @@ public class SocketClient {
 
   public void start(String username) {
     this.username = username;
+    this.store = new MessageStore(username);
+    util.ImageCache.setSource(store::loadImage); // 캐시 예산 초과로 제거된 사진은 로컬 캐시에서 다시 읽음
     ClientLogger.network("Starting client for user: " + username);
     new Thread(() -> {
       boolean connected = false;
@@ -120,15 +207,27 @@ public class SocketClient {
           socket = new Socket(host, port);
           ClientLogger.network("Connected to server at " + host + ":" + port);
 
-          reader = new BufferedReader(new InputStreamReader(socket.getInputStream()));
-          writer = new PrintWriter(socket.getOutputStream(), true);
+          // 기능 협상: HELLO -> WELCOME까지는 압축 없이 버퍼 없이 주고받은 뒤 합의된 스트림으로 전환
+          java.io.OutputStream rawOut = socket.getOutputStream();
+          rawOut.write(("HELLO:" + Protocol.VERSION + ":" + String.join(",", Protocol.CLIENT_CAPS) + "\n")
+              .getBytes());
+          rawOut.flush();
+          negotiate(readWelcome());
+          boolean deflate = serverCaps.contains(Protocol.CAP_DEFLATE);
+
+          reader = new BufferedReader(new InputStreamReader(codec.wrapInput(socket.getInputStream(), deflate)));
+          writer = new PrintWriter(new java.io.BufferedWriter(
+              new java.io.OutputStreamWriter(codec.wrapOutput(rawOut, deflate))), false);
           running = true;
           connected = true;
 
-          // Send Login
+          // Send Login (송신 스레드 시작 전에 먼저 전송하여 큐에 쌓인 프레임보다 앞서도록 함)
           writer.println("LOGIN:" + username);
+          writer.flush();
           ClientLogger.network("Sent LOGIN:" + username);
 
+          startSender();
+
           // Start Heartbeat
           startHeartbeat();
 
@@ -136,199 +235,14 @@ public class SocketClient {
           String line;
           while (running && (line = reader.readLine()) != null) {
             ClientLogger.network("Received: " + line);
-            if (line.startsWith("USER_LIST:")) {
-              if (userListListener != null) {
-                String[] users = line.substring(10).split(",");
-                userListListener.onUserListUpdated(users);
-              }
-            } else if (line.startsWith("USER_JOINED:")) {
-              if (userListListener != null) {
-                userListListener.onUserJoined(line.substring(12));
-              }
-            } else if (line.startsWith("USER_LEFT:")) {
-              if (userListListener != null) {
-                userListListener.onUserLeft(line.substring(10));
-              }
-            } else if (line.startsWith("ROOM_MSG:")) {
-              // Format: ROOM_MSG:roomId:sender:unreadCount:content
-              if (messageListener != null) {
-                String[] parts = line.split(":", 5);
-                if (parts.length == 5) {
-                  String sender = parts[2];
-                  String unreadCount = parts[3];
-                  String content = parts[4];
-                  // Pass formatted message to listener: MSG:sender:unreadCount:content
-                  messageListener.onMessageReceived("MSG:" + sender + ":" + unreadCount + ":" + content);
-
-                  // 알림 및 사운드 재생 (다른 사람이 보낸 메시지일 때만)
-                  if (!sender.equals(username)) {
-                    SoundPlayer.playKakao();
-                    NotificationManager.showMessageNotification(sender, content);
-                  }
-                }
-              }
-            } else if (line.startsWith("HISTORY:ROOM_MSG:")) {
-              // Format: HISTORY:ROOM_MSG:roomId:sender:unreadCount:content
-              if (messageListener != null) {
-                String historyContent = line.substring(8); // Remove "HISTORY:" prefix
-                String[] parts = historyContent.split(":", 5);
-                if (parts.length == 5) {
-                  String sender = parts[2];
-                  String unreadCount = parts[3];
-                  String content = parts[4];
-                  final String finalMsg = "MSG:" + sender + ":" + unreadCount + ":" + content;
-                  javax.swing.SwingUtilities.invokeLater(() -> messageListener.onMessageReceived(finalMsg));
-                }
-              }
-            } else if (line.startsWith("HISTORY:ROOM_GAME_INVITE:")) {
-              // Format: HISTORY:ROOM_GAME_INVITE:roomId:sender:gameType
-              if (messageListener != null) {
-                String historyContent = line.substring(8); // Remove "HISTORY:" prefix
-                String[] parts = historyContent.split(":", 4);
-                if (parts.length == 4) {
-                  String sender = parts[2];
-                  String gameType = parts[3];
-                  javax.swing.SwingUtilities.invokeLater(() -> messageListener.onGameInviteReceived(sender, gameType));
-                }
-              }
-            } else if (line.startsWith("HISTORY:ROOM_EMOJI:")) {
-              // Format: HISTORY:ROOM_EMOJI:roomId:sender:emojiName
-              if (messageListener != null) {
-                String historyContent = line.substring(8); // Remove "HISTORY:" prefix
-                String[] parts = historyContent.split(":", 4);
-                if (parts.length == 4) {
-                  String sender = parts[2];
-                  String emojiName = parts[3];
-                  javax.swing.SwingUtilities.invokeLater(() -> messageListener.onEmojiReceived(sender, emojiName));
-                }
-              }
-            } else if (line.startsWith("ROOM_IMG:")) {
-
-              // Format: ROOM_IMG:roomId:sender:base64
-              if (messageListener != null) {
-                int firstColon = line.indexOf(':');
-                int secondColon = line.indexOf(':', firstColon + 1);
-                int thirdColon = line.indexOf(':', secondColon + 1);
-                if (thirdColon != -1) {
-                  String sender = line.substring(secondColon + 1, thirdColon);
-                  String base64 = line.substring(thirdColon + 1);
-                  byte[] decodedBytes = java.util.Base64.getDecoder().decode(base64);
-                  javax.swing.ImageIcon image = new javax.swing.ImageIcon(decodedBytes);
-                  messageListener.onImageReceived(sender, image);
-                }
-              }
-            } else if (line.startsWith("INVITATION:")) {
-              // Format: INVITATION:roomId:inviter
-              String[] parts = line.split(":", 3);
-              if (parts.length == 3) {
-                String roomId = parts[1];
-                String inviter = parts[2];
-                // Auto-join
-                joinRoom(roomId);
-                // Notify user (optional, maybe a popup or sound)
-                System.out.println("Invited to room " + roomId + " by " + inviter);
-              }
-            } else if (line.startsWith("ROOM_EMOJI:")) {
-              // Format: ROOM_EMOJI:roomId:sender:emojiName
-              if (messageListener != null) {
-                String[] parts = line.split(":", 4);
-                if (parts.length == 4) {
-                  String sender = parts[2];
-                  String emojiName = parts[3];
-                  messageListener.onEmojiReceived(sender, emojiName);
-                }
-              }
-            } else if (line.startsWith("ROOM_GAME_INVITE:")) {
-              // Format: ROOM_GAME_INVITE:roomId:sender:gameType
-              if (messageListener != null) {
-                String[] parts = line.split(":", 4);
-                if (parts.length == 4) {
-                  String sender = parts[2];
-                  String gameType = parts[3];
-                  messageListener.onGameInviteReceived(sender, gameType);
-                }
-              }
-            } else if (line.startsWith("TYPING:")) {
-              // Format: TYPING:roomId:username:START or TYPING:roomId:username:STOP
-              if (messageListener != null) {
-                String[] parts = line.split(":", 4);
-                if (parts.length == 4) {
-                  String typingUser = parts[2];
-                  boolean isTyping = "START".equals(parts[3]);
-                  messageListener.onTypingStatusReceived(typingUser, isTyping);
-                }
-              }
-            } else if (line.startsWith("IMG:")) {
-              if (messageListener != null) {
-                int firstColon = line.indexOf(':');
-                int secondColon = line.indexOf(':', firstColon + 1);
-                if (secondColon != -1) {
-                  String sender = line.substring(firstColon + 1, secondColon);
-                  String base64 = line.substring(secondColon + 1);
-                  byte[] decodedBytes = java.util.Base64.getDecoder().decode(base64);
-                  javax.swing.ImageIcon image = new javax.swing.ImageIcon(decodedBytes);
-                  messageListener.onImageReceived(sender, image);
-                }
-              }
-            } else if (line.startsWith("UPDATE_CHAT_LIST:")) {
-              // Format: UPDATE_CHAT_LIST:roomId:lastMessage
-              if (userListListener != null) {
-                String[] parts = line.split(":", 3);
-                if (parts.length == 3) {
-                  String roomId = parts[1];
-                  String content = parts[2];
-                  userListListener.onChatListUpdate(roomId, content);
-                }
-              }
-            } else if (line.startsWith("UNREAD_UPDATE:")) {
-              // Format: UNREAD_UPDATE:roomId:count
-              String[] parts = line.split(":", 3);
-              if (parts.length == 3) {
-                String roomId = parts[1];
-                int count = Integer.parseInt(parts[2]);
-                cachedUnreadCounts.put(roomId, count);
-                if (unreadListener != null) {
-                  int total = getTotalUnreadCount();
-                  javax.swing.SwingUtilities.invokeLater(() -> {
-                    unreadListener.onUnreadCountUpdated(roomId, count);
-                    unreadListener.onTotalUnreadUpdated(total);
-                  });
-                }
-              }
-            } else if (line.startsWith("PROFILE:")) {
-              // Format: PROFILE:username:SPACE:score,BRICK:score,TYPING:score,VOLLEY:score
-              String[] parts = line.split(":", 3);
-              if (parts.length >= 3) {
-                String targetUser = parts[1];
-                String scoresData = parts[2];
-                java.util.Map<String, Integer> scores = new java.util.HashMap<>();
-
-                // Parse scores: SPACE:100,BRICK:50,TYPING:200,VOLLEY:0
-                for (String scorePair : scoresData.split(",")) {
-                  String[] kv = scorePair.split(":");
-                  if (kv.length == 2) {
-                    try {
-                      scores.put(kv[0], Integer.parseInt(kv[1]));
-                    } catch (NumberFormatException e) {
-                      scores.put(kv[0], 0);
-                    }
-                  }
-                }
-
-                cachedProfiles.put(targetUser, scores);
-                ClientLogger.network("Received profile for " + targetUser + ": " + scores);
-
-                if (profileListener != null) {
-                  final java.util.Map<String, Integer> finalScores = scores;
-                  javax.swing.SwingUtilities
-                      .invokeLater(() -> profileListener.onProfileReceived(targetUser, finalScores));
-                }
-              }
-            } else if (line.equals("PONG")) {
-              // Heartbeat response, ignore
-            } else if (messageListener != null) {
-              messageListener.onMessageReceived(line);
+            if (line.startsWith("BATCH:")) {
+              // Format: BATCH:n 다음 n줄이 한 묶음 (모두 해석한 뒤 UI에 한 번에 반영)
+              pipeline.submitBatch(readBatch(line), SocketClient::laneKeyOf, this::handleFrame);
+              continue;
             }
+            // 리더 스레드는 프레임 구분만 하고 해석/디코딩은 파이프라인에 위임
+            final String frame = line;
+            pipeline.submit(laneKeyOf(frame), () -> handleFrame(frame));
           }
         } catch (Exception e) {
           System.out.println("Connection attempt " + (attempts + 1) + " failed: " + e.getMessage());
@@ -352,63 +266,491 @@ public class SocketClient {
 
   }
 
-  private void startHeartbeat() {
-    if (heartbeatThread != null && heartbeatThread.isAlive())
+  /** WELCOME 응답 읽기 (응답하지 않는 이전 서버는 null) */
+  private String readWelcome() throws java.io.IOException {
+    socket.setSoTimeout(HANDSHAKE_TIMEOUT_MS);
+    try {
+      return ConnectionCodec.readLineUnbuffered(socket.getInputStream());
+    } catch (java.net.SocketTimeoutException e) {
+      return null;
+    } finally {
+      socket.setSoTimeout(0);
+    }
+  }
+
+  /** WELCOME:version:agreedCaps:limits 반영 (없으면 기능 없이 레거시로 동작) */
+  private void negotiate(String welcome) {
+    if (welcome == null || !welcome.startsWith("WELCOME:")) {
+      serverCaps = java.util.Collections.emptySet();
+      ClientLogger.network("Server did not answer HELLO, using legacy protocol (no seq, no local cache)");
       return;
+    }
+    String[] parts = welcome.split(":", 4);
+    serverCaps = Protocol.parseCaps(parts.length > 2 ? parts[2] : "");
+    String limits = parts.length > 3 ? parts[3] : "";
+    maxFrameBytes = Protocol.limit(limits, "maxFrame", Protocol.MAX_FRAME_BYTES);
+    batchWindowMs = Protocol.limit(limits, "batchWindow", 0);
+    int idleTimeout = Protocol.limit(limits, "idleTimeout", 0);
+    // PING을 두 번 놓쳐도 서버의 유휴 종료 시간 안에 다음 PING이 도착하도록 간격 조정
+    heartbeatIntervalMs = idleTimeout > 0 ? Math.min(HEARTBEAT_INTERVAL_MS, idleTimeout / 3) : HEARTBEAT_INTERVAL_MS;
+    ClientLogger.network("Handshake: server v" + parts[1] + " caps=" + serverCaps + " maxFrame=" + maxFrameBytes
+        + " batchWindow=" + batchWindowMs);
+  }
 
-    heartbeatThread = new Thread(() -> {
-      while (running && socket != null && !socket.isClosed()) {
+  /** 서버와 합의된 기능인지 */
+  public boolean supportsFeature(String cap) {
+    return serverCaps.contains(cap);
+  }
+
+  /** 수신 프레임 해석 및 리스너 전달 (파이프라인 작업 스레드에서 실행, 리스너는 EDT에서 호출) */
+  private void handleFrame(String line) {
+    if (line.startsWith("USER_LIST:")) {
+      if (userListListener != null) {
+        String[] users = line.substring(10).split(",");
+        pipeline.deliver(() -> userListListener.onUserListUpdated(users));
+      }
+    } else if (line.startsWith("PRESENCE:")) {
+      // Format: PRESENCE:+name|status,~name|status,-name
+      if (userListListener != null) {
+        java.util.List<String> updated = new java.util.ArrayList<>();
+        java.util.List<String> removed = new java.util.ArrayList<>();
+        for (String delta : line.substring(9).split(",")) {
+          if (delta.length() < 2)
+            continue;
+          char op = delta.charAt(0);
+          if (op == '-') {
+            removed.add(delta.substring(1));
+          } else if (op == '+' || op == '~') {
+            updated.add(delta.substring(1));
+          }
+        }
+        pipeline.deliver(() -> userListListener.onPresenceChanged(updated, removed));
+      }
+    } else if (line.startsWith("ROOM_MSG:") || line.startsWith("ROOM_IMG:") || line.startsWith("ROOM_EMOJI:")
+        || line.startsWith("ROOM_GAME_INVITE:")) {
+      handleRoomFrame(line, true, true);
+    } else if (line.startsWith("HISTORY:")) {
+      // Format: HISTORY:<room frame> (입장 시 서버가 보내는 이전 메시지)
+      handleRoomFrame(line.substring(8), false, true);
+    } else if (line.startsWith("ROOM_ACK:")) {
+      // Format: ROOM_ACK:roomId:seq (내가 보낸 메시지에 서버가 부여한 순번)
+      String[] parts = line.split(":", 3);
+      if (parts.length == 3) {
+        String roomId = parts[1];
+        long seq = Long.parseLong(parts[2]);
+        // ACK는 보낸 순서대로 오고, 앞선 프레임은 이미 송신 스레드가 처리했으므로 버려진 것만 건너뜀
+        java.util.Queue<PendingAck> pending = pendingAcks.get(roomId);
+        PendingAck ack = pending != null ? pending.poll() : null;
+        while (ack != null && ack.dropped) {
+          ack = pending.poll();
+        }
+        if (ack != null) {
+          if (rooms.markSeen(roomId, seq)) {
+            store.append(roomId, seq, ack.stored.apply(seq));
+          }
+          rooms.dispatchTransient(roomId, l -> l.onMessageAcked(roomId, seq));
+        }
+      }
+    } else if (line.startsWith("READ_UPTO:")) {
+      // Format: READ_UPTO:roomId:floor:seq1*count1,... (방을 보고 있는 동안만 수신)
+      String[] parts = line.split(":", 3);
+      ReadReceipts receipts = parts.length == 3 ? ReadReceipts.parse(parts[2]) : null;
+      if (receipts != null) {
+        String roomId = parts[1];
+        rooms.dispatchTransient(roomId, l -> l.onReadReceiptsReceived(roomId, receipts));
+      }
+    } else if (line.startsWith("INVITATION:")) {
+      // Format: INVITATION:roomId:inviter
+      String[] parts = line.split(":", 3);
+      if (parts.length == 3) {
+        String roomId = parts[1];
+        String inviter = parts[2];
+        // 서버가 이미 멤버로 추가했으므로 방을 열 때 입장 (미리 입장하면 보고 있는 것으로 처리됨)
+        // Notify user (optional, maybe a popup or sound)
+        System.out.println("Invited to room " + roomId + " by " + inviter);
+      }
+    } else if (line.startsWith("TYPING_USERS:")) {
+      // Format: TYPING_USERS:roomId:user1,user2 (서버에서 방 단위로 집계된 입력중 목록)
+      String[] parts = line.split(":", 3);
+      if (parts.length == 3) {
+        String roomId = parts[1];
+        java.util.List<String> typingUsers = new java.util.ArrayList<>();
+        for (String typingUser : parts[2].split(",")) {
+          if (!typingUser.isEmpty() && !typingUser.equals(username)) {
+            typingUsers.add(typingUser);
+          }
+        }
+        rooms.dispatchTransient(roomId, l -> l.onTypingUsersReceived(roomId, typingUsers));
+      }
+    } else if (line.startsWith("IMG:")) {
+      if (messageListener != null) {
+        int firstColon = line.indexOf(':');
+        int secondColon = line.indexOf(':', firstColon + 1);
+        if (secondColon != -1) {
+          String sender = line.substring(firstColon + 1, secondColon);
+          String imageKey = storeChatImage(line.substring(secondColon + 1));
+          pipeline.deliver(() -> messageListener.onImageReceived(null, 0, sender, imageKey));
+        }
+      }
+    } else if (line.startsWith("UPDATE_CHAT_LIST:")) {
+      // Format: UPDATE_CHAT_LIST:roomId:lastMessage
+      if (userListListener != null) {
+        String[] parts = line.split(":", 3);
+        if (parts.length == 3) {
+          String roomId = parts[1];
+          String content = parts[2];
+          pipeline.deliver(() -> userListListener.onChatListUpdate(roomId, content));
+        }
+      }
+    } else if (line.startsWith("ROOM_LIST:")) {
+      // Format: ROOM_LIST:roomId|lastMessage|timestamp|unreadCount|memberCount,... (로그인 응답)
+      network.dto.RoomListMessage roomList = network.dto.RoomListMessage.parse(line);
+      if (roomList != null) {
+        cachedUnreadCounts.clear();
+        for (network.dto.RoomListMessage.Entry room : roomList.getRooms()) {
+          cachedUnreadCounts.put(room.getRoomId(), room.getUnreadCount());
+        }
+        int total = getTotalUnreadCount();
+        pipeline.deliver(() -> {
+          if (userListListener != null)
+            userListListener.onRoomListReceived(roomList.getRooms());
+          if (unreadListener != null)
+            unreadListener.onTotalUnreadUpdated(total);
+        });
+      }
+    } else if (line.startsWith("UNREAD_UPDATE:")) {
+      // Format: UNREAD_UPDATE:roomId:count
+      String[] parts = line.split(":", 3);
+      if (parts.length == 3) {
+        String roomId = parts[1];
+        int count = Integer.parseInt(parts[2]);
+        cachedUnreadCounts.put(roomId, count);
+        if (unreadListener != null) {
+          int total = getTotalUnreadCount();
+          pipeline.deliver(() -> {
+            unreadListener.onUnreadCountUpdated(roomId, count);
+            unreadListener.onTotalUnreadUpdated(total);
+          });
+        }
+      }
+    } else if (line.startsWith("PROFILE:")) {
+      // Format: PROFILE:username:SPACE:score,BRICK:score,TYPING:score,VOLLEY:score
+      String[] parts = line.split(":", 3);
+      if (parts.length >= 3) {
+        String targetUser = parts[1];
+        String scoresData = parts[2];
+        java.util.Map<String, Integer> scores = new java.util.HashMap<>();
+
+        // Parse scores: SPACE:100,BRICK:50,TYPING:200,VOLLEY:0
+        for (String scorePair : scoresData.split(",")) {
+          String[] kv = scorePair.split(":");
+          if (kv.length == 2) {
+            try {
+              scores.put(kv[0], Integer.parseInt(kv[1]));
+            } catch (NumberFormatException e) {
+              scores.put(kv[0], 0);
+            }
+          }
+        }
+
+        cachedProfiles.put(targetUser, scores);
+        ClientLogger.network("Received profile for " + targetUser + ": " + scores);
+
+        if (profileListener != null) {
+          pipeline.deliver(() -> profileListener.onProfileReceived(targetUser, scores));
+        }
+      }
+    } else if (line.equals("PONG")) {
+      // Heartbeat response, ignore
+    } else if (!laneKeyOf(line).isEmpty()) {
+      // 기타 방 이벤트 (예: GAME_RESULT:roomId:...)
+      String roomId = laneKeyOf(line);
+      rooms.dispatch(roomId, l -> l.onMessageReceived(roomId, 0, line));
+    } else if (messageListener != null) {
+      pipeline.deliver(() -> messageListener.onMessageReceived(null, 0, line));
+    }
+  }
+
+  /**
+   * 순번이 붙은 방 프레임 처리: TYPE:roomId:seq:sender:payload
+   * 이미 표시한 seq(로컬 캐시와 히스토리 중복)는 무시
+   * seq를 합의하지 않은 이전 서버의 TYPE:roomId:sender:payload는 로컬 순번을 붙여 표시만 함 (캐시 저장 안 함)
+   *
+   * @param live    실시간 수신 여부 (알림음/알림 표시)
+   * @param persist 로컬 캐시에 저장할지 여부 (캐시에서 읽은 프레임은 false)
+   */
+  private void handleRoomFrame(String frame, boolean live, boolean persist) {
+    boolean sequenced = supportsFeature(Protocol.CAP_SEQ);
+    String[] parts = sequenced ? frame.split(":", 5) : frame.split(":", 4);
+    if (parts.length < (sequenced ? 5 : 4))
+      return;
+    String type = parts[0];
+    String roomId = parts[1];
+    String sender = parts[sequenced ? 3 : 2];
+    String payload = parts[sequenced ? 4 : 3];
+    long seq;
+    if (sequenced) {
+      try {
+        seq = Long.parseLong(parts[2]);
+      } catch (NumberFormatException e) {
+        ClientLogger.error("Room frame without seq: " + type);
+        return;
+      }
+      if (!rooms.markSeen(roomId, seq))
+        return;
+    } else {
+      seq = legacySeq.incrementAndGet();
+      persist = false;
+    }
+
+    java.util.function.Consumer<MessageListener> event;
+    String stored = frame;
+    switch (type) {
+      case "ROOM_MSG": {
+        // payload: unreadCount:content
+        int colon = payload.indexOf(':');
+        if (colon == -1)
+          return;
+        String content = payload.substring(colon + 1);
+        // Pass formatted message to listener: MSG:sender:unreadCount:content
+        String formatted = "MSG:" + sender + ":" + payload;
+        event = l -> l.onMessageReceived(roomId, seq, formatted);
+
+        // 알림 및 사운드 재생 (다른 사람이 보낸 메시지일 때만)
+        if (live && !sender.equals(username)) {
+          SoundPlayer.playKakao();
+          NotificationManager.showMessageNotification(sender, content);
+        }
+        break;
+      }
+      case "ROOM_IMG": {
+        String imageKey;
+        if (payload.startsWith("@")) {
+          // 로컬 캐시에 저장된 사진 (@imageKey)
+          imageKey = payload.substring(1);
+          byte[] bytes = store.loadImage(imageKey);
+          if (bytes == null)
+            return;
+          util.ImageCache.put(bytes);
+        } else {
+          byte[] bytes = java.util.Base64.getDecoder().decode(payload);
+          imageKey = util.ImageCache.put(bytes);
+          if (persist) {
+            store.saveImage(imageKey, bytes);
+            stored = "ROOM_IMG:" + roomId + ":" + seq + ":" + sender + ":@" + imageKey;
+          }
+        }
+        event = l -> l.onImageReceived(roomId, seq, sender, imageKey);
+        break;
+      }
+      case "ROOM_EMOJI":
+        event = l -> l.onEmojiReceived(roomId, seq, sender, payload);
+        break;
+      case "ROOM_GAME_INVITE":
+        event = l -> l.onGameInviteReceived(roomId, seq, sender, payload);
+        break;
+      default:
+        return;
+    }
+
+    if (persist) {
+      store.append(roomId, seq, stored);
+    }
+    rooms.dispatch(roomId, event);
+  }
+
+  /** 서버 ACK를 기다리는 내가 보낸 프레임 */
+  private static final class PendingAck implements java.util.function.Supplier<String> {
+    final String roomId;
+    private final java.util.function.Supplier<String> frame; // 보낼 프레임 (송신 스레드에서 생성)
+    final java.util.function.LongFunction<String> stored; // ACK 후 로컬 캐시에 저장할 프레임
+    volatile boolean dropped; // 송신 스레드가 보내지 않고 버림 (ACK가 오지 않음)
+
+    PendingAck(String roomId, java.util.function.Supplier<String> frame, java.util.function.LongFunction<String> stored) {
+      this.roomId = roomId;
+      this.frame = frame;
+      this.stored = stored;
+    }
+
+    @Override
+    public String get() {
+      return frame.get();
+    }
+  }
+
+  /**
+   * ACK를 받을 프레임 전송: ACK 대기 등록과 송신 큐 추가를 한 번에 해서 두 순서가 항상 같게 함
+   *
+   * @param stored 서버 ACK를 받으면 로컬 캐시에 저장할 프레임
+   */
+  private void sendExpectingAck(String roomId, java.util.function.Supplier<String> frame,
+      java.util.function.LongFunction<String> stored) {
+    if (!supportsFeature(Protocol.CAP_SEQ)) {
+      // 이전 서버는 ACK를 보내지 않으므로 바로 순번 없이 ACK 처리 (화면의 ACK 대기 말풍선 정리)
+      outbound.offer(frame);
+      rooms.dispatchTransient(roomId, l -> l.onMessageAcked(roomId, 0));
+      return;
+    }
+    PendingAck ack = new PendingAck(roomId, frame, stored);
+    synchronized (pendingAcks) {
+      pendingAcks.computeIfAbsent(roomId, k -> new java.util.concurrent.ConcurrentLinkedQueue<>()).add(ack);
+      outbound.offer(ack);
+    }
+  }
+
+  /** base64 이미지를 압축 상태로 캐시에 등록 (비트맵 디코딩은 화면에 보일 때 수행) */
+  private String storeChatImage(String base64) {
+    byte[] decodedBytes = java.util.Base64.getDecoder().decode(base64);
+    return util.ImageCache.put(decodedBytes);
+  }
+
+  /** BATCH:n 헤더 뒤의 n줄 읽기 (연결이 끊기면 읽은 데까지) */
+  private java.util.List<String> readBatch(String header) throws java.io.IOException {
+    int count;
+    try {
+      count = Integer.parseInt(header.substring(6));
+    } catch (NumberFormatException e) {
+      return java.util.Collections.emptyList();
+    }
+    java.util.List<String> frames = new java.util.ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      String frame = reader.readLine();
+      if (frame == null)
+        break;
+      frames.add(frame);
+    }
+    return frames;
+  }
+
+  /**
+   * 수신 프레임의 처리 레인 키 (같은 방의 이벤트는 같은 레인에서 순서대로 처리)
+   * 방 관련 프레임은 roomId, 그 외 목록/상태 프레임은 빈 문자열
+   */
+  private static String laneKeyOf(String line) {
+    int start = line.startsWith("HISTORY:") ? 8 : 0;
+    if (line.startsWith("ROOM_", start) || line.startsWith("TYPING_USERS:", start)
+        || line.startsWith("GAME_RESULT:", start) || line.startsWith("READ_UPTO:", start)) {
+      int firstColon = line.indexOf(':', start);
+      int secondColon = line.indexOf(':', firstColon + 1);
+      if (firstColon != -1 && secondColon != -1) {
+        return line.substring(firstColon + 1, secondColon);
+      }
+    }
+    return "";
+  }
+
+  /** 송신 스레드: 큐에 쌓인 연속 프레임을 한 번의 flush로 전송 */
+  private void startSender() {
+    if (senderThread != null && senderThread.isAlive())
+      return;
+
+    senderThread = new Thread(() -> {
+      java.util.List<java.util.function.Supplier<String>> batch = new java.util.ArrayList<>();
+      while (running) {
         try {
-          Thread.sleep(10000); // 10 seconds
-          if (writer != null) {
-            writer.println("PING");
-            if (writer.checkError())
-              throw new Exception("Write error");
+          batch.add(outbound.take());
+          outbound.drainTo(batch, MAX_BATCH_FRAMES - 1);
+          for (java.util.function.Supplier<String> frame : batch) {
+            String line = frame.get();
+            if (line != null && line.length() > maxFrameBytes) {
+              // 서버가 WELCOME에서 알려준 최대 프레임 길이 초과 (서버에서 버려지므로 보내지 않음)
+              ClientLogger.error("Frame exceeds server limit (" + line.length() + " > " + maxFrameBytes + ")");
+              line = null;
+            }
+            if (line != null) {
+              writer.println(line);
+            } else if (frame instanceof PendingAck) {
+              // 화면의 ACK 대기 말풍선도 순서가 어긋나지 않도록 순번 없이 ACK 처리
+              PendingAck ack = (PendingAck) frame;
+              ack.dropped = true;
+              rooms.dispatchTransient(ack.roomId, l -> l.onMessageAcked(ack.roomId, 0));
+            }
           }
+          batch.clear();
+          writer.flush();
+          if (writer.checkError())
+            throw new Exception("Write error");
         } catch (InterruptedException e) {
           break;
         } catch (Exception e) {
-          System.out.println("Heartbeat failed: " + e.getMessage());
+          System.out.println("Sender failed: " + e.getMessage());
           // Let the reader loop handle disconnection
           break;
         }
       }
+    }, "socket-sender");
+    senderThread.setDaemon(true);
+    senderThread.start();
+  }
+
+  /** 프레임을 송신 큐에 추가 (호출 스레드를 블로킹하지 않음) */
+  private void send(String frame) {
+    outbound.offer(() -> frame);
+  }
+
+  private void startHeartbeat() {
+    if (heartbeatThread != null && heartbeatThread.isAlive())
+      return;
+
+    heartbeatThread = new Thread(() -> {
+      while (running && socket != null && !socket.isClosed()) {
+        try {
+          Thread.sleep(heartbeatIntervalMs);
+          send("PING");
+        } catch (InterruptedException e) {
+          break;
+        }
+      }
     });
     heartbeatThread.setDaemon(true);
     heartbeatThread.start();
   }
 
   public void sendMessage(String message) {
-    if (writer != null) {
-      writer.println("MSG:" + username + ": " + message);
-    }
+    send("MSG:" + username + ": " + message);
   }
 
   public void sendImage(java.io.File file) {
+    outbound.offer(() -> encodeImageFrame("IMG:" + username + ":", file));
+  }
+
+  /** 이미지 파일을 base64 프레임으로 변환 (송신 스레드에서 실행) */
+  private String encodeImageFrame(String prefix, java.io.File file) {
     try {
       byte[] fileContent = java.nio.file.Files.readAllBytes(file.toPath());
-      String base64 = java.util.Base64.getEncoder().encodeToString(fileContent);
-      if (writer != null) {
-        writer.println("IMG:" + username + ":" + base64);
-      }
+      return prefix + java.util.Base64.getEncoder().encodeToString(fileContent);
     } catch (Exception e) {
       e.printStackTrace();
+      return null;
     }
   }
 
   // Room-based messaging
   public void joinRoom(String roomId) {
-    synchronized (writerLock) {
-      if (writer != null) {
-        ClientLogger.network("Joining room: " + roomId);
-        writer.println("JOIN_ROOM:" + roomId + ":" + username);
-      }
-    }
-    // 로컬 캐시에서 안읽은 메시지 수 초기화 (락 밖에서 수행)
+    joinRoom(roomId, 0);
+  }
+
+  /** 채팅방 입장 (sinceSeq 이후의 히스토리만 요청) */
+  private void joinRoom(String roomId, long sinceSeq) {
+    joinRoom(roomId, java.util.concurrent.CompletableFuture.completedFuture(sinceSeq));
+  }
+
+  /** 채팅방 입장 요청을 지금 송신 큐에 넣고, 요청할 seq는 보낼 때 확정 */
+  private void joinRoom(String roomId, java.util.concurrent.CompletableFuture<Long> sinceSeq) {
+    outbound.offer(() -> {
+      long seq = sinceSeq.join();
+      ClientLogger.network("Joining room: " + roomId + " (since seq " + seq + ")");
+      return "JOIN_ROOM:" + roomId + ":" + username + (seq > 0 ? ":" + seq : "");
+    });
+    markRoomRead(roomId);
+  }
+
+  /** 로컬 캐시에서 안읽은 메시지 수 초기화 */
+  public void markRoomRead(String roomId) {
     cachedUnreadCounts.put(roomId, 0);
     if (unreadListener != null) {
       int total = getTotalUnreadCount();
-      javax.swing.SwingUtilities.invokeLater(() -> {
+      pipeline.deliver(() -> {
         unreadListener.onUnreadCountUpdated(roomId, 0);
         unreadListener.onTotalUnreadUpdated(total);
       });
@@ -416,90 +758,106 @@ public class SocketClient {
   }
 
   public void sendRoomMessage(String roomId, String message) {
-    synchronized (writerLock) {
-      if (writer != null) {
-        ClientLogger.network("Sending to room " + roomId + ": " + message);
-        writer.println("ROOM_MSG:" + roomId + ":" + username + ":" + message);
-      }
-    }
+    ClientLogger.network("Sending to room " + roomId + ": " + message);
+    String frame = "ROOM_MSG:" + roomId + ":" + username + ":" + message;
+    String sent = "MSG:" + username + ":0:" + message;
+    rooms.record(roomId, l -> l.onMessageReceived(roomId, 0, sent));
+    sendExpectingAck(roomId, () -> frame,
+        seq -> "ROOM_MSG:" + roomId + ":" + seq + ":" + username + ":0:" + message);
   }
 
   public void sendRoomImage(String roomId, java.io.File file) {
-    try {
-      byte[] fileContent = java.nio.file.Files.readAllBytes(file.toPath());
-      String base64 = java.util.Base64.getEncoder().encodeToString(fileContent);
-      synchronized (writerLock) {
-        if (writer != null) {
-          writer.println("ROOM_IMG:" + roomId + ":" + username + ":" + base64);
-        }
+    // 파일 읽기는 송신 스레드에서 하고, 캐시 키는 ACK가 오기 전(전송 시)에 정해짐
+    java.util.concurrent.atomic.AtomicReference<String> sentKey = new java.util.concurrent.atomic.AtomicReference<>();
+    sendExpectingAck(roomId, () -> {
+      try {
+        byte[] fileContent = java.nio.file.Files.readAllBytes(file.toPath());
+        String imageKey = util.ImageCache.put(fileContent);
+        rooms.record(roomId, l -> l.onImageReceived(roomId, 0, username, imageKey));
+        store.saveImage(imageKey, fileContent);
+        sentKey.set(imageKey);
+        return "ROOM_IMG:" + roomId + ":" + username + ":" + java.util.Base64.getEncoder().encodeToString(fileContent);
+      } catch (Exception e) {
+        e.printStackTrace();
+        return null;
       }
-    } catch (Exception e) {
-      e.printStackTrace();
-    }
+    }, seq -> "ROOM_IMG:" + roomId + ":" + seq + ":" + username + ":@" + sentKey.get());
   }
 
   public void inviteUser(String roomId, String targetUser) {
-    synchronized (writerLock) {
-      if (writer != null) {
-        writer.println("INVITE:" + roomId + ":" + targetUser);
-      }
-    }
+    send("INVITE:" + roomId + ":" + targetUser);
   }
 
   public void sendRoomEmoji(String roomId, String emojiName) {
-    synchronized (writerLock) {
-      if (writer != null) {
-        writer.println("ROOM_EMOJI:" + roomId + ":" + username + ":" + emojiName);
-      }
-    }
+    String frame = "ROOM_EMOJI:" + roomId + ":" + username + ":" + emojiName;
+    rooms.record(roomId, l -> l.onEmojiReceived(roomId, 0, username, emojiName));
+    sendExpectingAck(roomId, () -> frame,
+        seq -> "ROOM_EMOJI:" + roomId + ":" + seq + ":" + username + ":" + emojiName);
   }
 
   public void sendGameInvite(String roomId, String gameType) {
-    synchronized (writerLock) {
-      if (writer != null) {
-        writer.println("ROOM_GAME_INVITE:" + roomId + ":" + username + ":" + gameType);
-      }
+    String frame = "ROOM_GAME_INVITE:" + roomId + ":" + username + ":" + gameType;
+    rooms.record(roomId, l -> l.onGameInviteReceived(roomId, 0, username, gameType));
+    sendExpectingAck(roomId, () -> frame,
+        seq -> "ROOM_GAME_INVITE:" + roomId + ":" + seq + ":" + username + ":" + gameType);
+  }
+
+  /** 게임 결과 전송 (서버가 최고 점수에 반영하고 방에 결과 문구를 표시) */
+  public void sendGameScore(String roomId, String gameType, int score, network.dto.GameScoreMessage.Outcome outcome) {
+    send(new network.dto.GameScoreMessage(roomId, username, gameType, score, outcome).serialize());
+  }
+
+  /**
+   * 게임 프로세스가 표준 출력으로 알린 결과 줄을 로그인한 이 연결로 전달
+   * 게임 클라이언트는 로그인하지 않으므로 서버는 이 경로로 온 GAME_SCORE만 점수로 인정함
+   *
+   * @param line   게임 프로세스 출력 한 줄 (GAME_SCORE:roomId:username:gameType:score:outcome)
+   * @param roomId 게임을 실행한 방 (다른 방/다른 사용자 이름의 결과는 버림)
+   * @return GAME_SCORE 줄이었으면 true
+   */
+  public boolean forwardGameScore(String line, String roomId) {
+    if (!line.startsWith("GAME_SCORE:"))
+      return false;
+    network.dto.GameScoreMessage result = network.dto.GameScoreMessage.parse(line);
+    if (result == null || !roomId.equals(result.getRoomId()) || !username.equals(result.getUsername())) {
+      ClientLogger.error("Ignored game score from game process: " + line);
+    } else {
+      sendGameScore(roomId, result.getGameType(), result.getScore(), result.getOutcome());
     }
+    return true;
   }
 
   public void updateStatus(String status) {
-    synchronized (writerLock) {
-      if (writer != null) {
-        writer.println("UPDATE_STATUS:" + status);
-      }
-    }
+    send("UPDATE_STATUS:" + status);
   }
 
   public void requestProfile(String targetUsername) {
-    synchronized (writerLock) {
-      if (writer != null) {
-        writer.println("GET_PROFILE:" + targetUsername);
-      }
-    }
+    send("GET_PROFILE:" + targetUsername);
   }
 
   /**
-   * 입력중 상태 전송 (비동기로 처리하여 EDT 블로킹 방지)
+   * 입력중 상태 전송 (송신 큐를 통해 비동기로 처리하여 EDT 블로킹 방지)
    * 
    * @param roomId   채팅방 ID
    * @param isTyping 입력중 여부 (true: 시작, false: 종료)
    */
   public void sendTypingStatus(String roomId, boolean isTyping) {
-    // EDT 블로킹 방지를 위해 백그라운드 스레드에서 전송
-    new Thread(() -> {
-      synchronized (writerLock) {
-        if (writer != null) {
-          String status = isTyping ? "START" : "STOP";
-          writer.println("TYPING:" + roomId + ":" + username + ":" + status);
-        }
-      }
-    }).start();
+    String status = isTyping ? "START" : "STOP";
+    send("TYPING:" + roomId + ":" + username + ":" + status);
+  }
+
+  /** 연결 압축률 지표 */
+  public String getCompressionStats() {
+    return codec.getStats();
   }
 
   public void stop() {
     running = false;
+    ClientLogger.network("Connection stats: " + codec.getStats());
     if (heartbeatThread != null)
       heartbeatThread.interrupt();
+    if (senderThread != null)
+      senderThread.interrupt();
     try {
       if (socket != null && !socket.isClosed()) {
         socket.close();
@@ -1,12 +1,10 @@
 package network;
 
-import java.io.BufferedReader;
 import java.io.PrintWriter;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -21,22 +19,50 @@ public class SocketServer {
   private Thread acceptThread; // 클라이언트 연결 수락 스레드
   private List<SocketClientHandler> clients = new CopyOnWriteArrayList<>(); // 연결된 클라이언트 목록
   private ServerLogListener logListener; // 로그 리스너
+  final TimingWheel timers = new TimingWheel(this); // 유휴 연결/입력중 만료 타이머
+  private final PresenceManager presence = new PresenceManager(this); // 접속자 상태 델타 전송
+  private final TypingAggregator typing = new TypingAggregator(this); // 입력중 상태 집계
+  final UnreadTracker unread = new UnreadTracker(this); // 읽음 위치 기반 안읽은 수
+  private final OfflineMailbox mailbox = new OfflineMailbox(this); // 미접속 사용자 이벤트 보관함
+  final RoomActors roomActors = new RoomActors(this); // 방별 직렬 실행기
+  private final GameScores scores = new GameScores(this); // 게임 최고 점수 (비동기 반영)
+  final RoomLifecycle lifecycle = new RoomLifecycle(this); // 유휴 방 상태 파일 보관 및 재적재
+  final SymbolTable users = new SymbolTable(); // 사용자명 <-> 정수 ID (멤버 집합은 ID로 보관)
+  // username -> 로그인한 연결 (접속 중인 멤버 조회용)
+  private final Map<String, SocketClientHandler> handlersByUser = new ConcurrentHashMap<>();
+
+  // 채팅방 관리 (변경은 해당 방의 액터에서만 수행, 다른 스레드는 읽기만 함)
+  // activeRoomUsers: roomId -> 현재 채팅방을 보고 있는 사용자 ID 집합
+  private Map<String, IntSet> activeRoomUsers = new ConcurrentHashMap<>();
+  // roomAllMembers: roomId -> 채팅방에 속한 모든 사용자 ID 집합 (초대됨 또는 참여함)
+  private Map<String, IntSet> roomAllMembers = new ConcurrentHashMap<>();
+  private static final IntSet NO_USERS = new IntSet(); // 빈 집합 (변경하지 않음)
+  // 역방향 색인: username -> 멤버인 방 / 보고 있는 방 (위 집합과 항상 함께 갱신)
+  // 접속 종료나 채팅 목록처럼 한 사용자의 방만 필요한 처리가 전체 방을 순회하지 않도록 함
+  private final Map<String, java.util.Set<String>> memberRoomsByUser = new ConcurrentHashMap<>();
+  private final Map<String, java.util.Set<String>> activeRoomsByUser = new ConcurrentHashMap<>();
+
+  // 채팅 히스토리: roomId -> 메시지 목록 (프로토콜 문자열로 저장, 해당 방 액터에서만 접근)
+  private Map<String, java.util.ArrayDeque<String>> roomChatHistory = new ConcurrentHashMap<>();
+  private static final int MAX_HISTORY_PER_ROOM = 100; // 채팅방당 최대 히스토리 개수
 
-  // 채팅방 관리
-  // activeRoomUsers: roomId -> 현재 채팅방을 보고 있는 사용자 집합
-  private Map<String, Set<String>> activeRoomUsers = new ConcurrentHashMap<>();
-  // roomAllMembers: roomId -> 채팅방에 속한 모든 사용자 집합 (초대됨 또는 참여함)
-  private Map<String, Set<String>> roomAllMembers = new ConcurrentHashMap<>();
+  // 방별 메시지 순번: roomId -> 마지막으로 부여한 seq
+  // 시작 시각(ms)부터 세므로 서버가 재시작해도 클라이언트 캐시의 이전 번호보다 커짐
+  private final Map<String, java.util.concurrent.atomic.AtomicLong> roomSeqs = new ConcurrentHashMap<>();
+  static final long SEQ_BASE = System.currentTimeMillis();
 
-  // 사용자 게임 점수: username -> (gameType -> 최고 점수)
-  private Map<String, Map<String, Integer>> userGameScores = new ConcurrentHashMap<>();
+  // 채팅방 마지막 메시지: roomId -> 미리보기와 시각 (로그인 시 채팅 목록 스냅샷용)
+  private final Map<String, LastMessage> roomLastMessages = new ConcurrentHashMap<>();
 
-  // 채팅 히스토리: roomId -> 메시지 목록 (프로토콜 문자열로 저장)
-  private Map<String, java.util.List<String>> roomChatHistory = new ConcurrentHashMap<>();
-  private static final int MAX_HISTORY_PER_ROOM = 100; // 채팅방당 최대 히스토리 개수
+  private static class LastMessage {
+    final String text;
+    final long timestamp;
 
-  // 안읽은 메시지 수: roomId -> (username -> unreadCount)
-  private Map<String, Map<String, Integer>> unreadCounts = new ConcurrentHashMap<>();
+    LastMessage(String text, long timestamp) {
+      this.text = text;
+      this.timestamp = timestamp;
+    }
+  }
 
   /** 서버 로그 리스너 인터페이스 */
   public interface ServerLogListener {
@@ -53,7 +79,17 @@ public class SocketServer {
     this.port = port;
   }
 
-  private void log(String message) {
+  /** 이 시간 동안 사용되지 않은 채팅방은 상태를 파일로 옮기고 메모리에서 제거 */
+  public void setRoomIdleTtl(long idleTtlMs) {
+    lifecycle.setIdleTtl(idleTtlMs);
+  }
+
+  /** 입력중 표시를 보낼 최대 채팅방 인원 설정 (초과 시 TYPING 이벤트 무시) */
+  public void setMaxTypingRoomSize(int maxRoomSize) {
+    typing.setMaxRoomSize(maxRoomSize);
+  }
+
+  void log(String message) {
     System.out.println(message);
     if (logListener != null) {
       logListener.onLog(message);
@@ -69,6 +105,7 @@ public class SocketServer {
   public void start() throws Exception {
     serverSocket = new ServerSocket(port);
     running = true;
+    lifecycle.start();
     log("Server started on port " + port);
     acceptThread = new Thread(() -> {
       while (running) {
@@ -114,54 +151,50 @@ public class SocketServer {
     }
   }
 
-  public void broadcastUserList() {
-    StringBuilder sb = new StringBuilder("USER_LIST:");
-    for (SocketClientHandler client : clients) {
-      if (client.getUsername() != null) {
-        String status = client.getStatusMessage();
-        if (status == null)
-          status = "";
-        // Sanitize status to remove commas or pipes if necessary, though simple
-        // replacement is safer
-        status = status.replace(",", " ").replace("|", " ");
-        sb.append(client.getUsername()).append("|").append(status).append(",");
-      }
-    }
-    String userListMsg = sb.toString();
-    if (userListMsg.endsWith(",")) {
-      userListMsg = userListMsg.substring(0, userListMsg.length() - 1);
-    }
+  // Room management methods
+  // 방 상태 변경은 모두 해당 방의 액터에서 실행 (public 메서드는 작업만 추가하고 바로 반환)
+  public void joinRoom(String roomId, String username) {
+    joinRoom(roomId, username, 0);
+  }
 
-    for (SocketClientHandler client : clients) {
-      client.sendMessage(userListMsg);
-    }
+  /**
+   * 채팅방 입장
+   *
+   * @param sinceSeq 클라이언트 캐시에 이미 있는 마지막 seq (이후 메시지만 히스토리로 전송)
+   */
+  public void joinRoom(String roomId, String username, long sinceSeq) {
+    roomActors.submit(roomId, () -> enterRoom(roomId, username, sinceSeq));
   }
 
-  // Room management methods
-  public void joinRoom(String roomId, String username) {
-    activeRoomUsers.computeIfAbsent(roomId, k -> ConcurrentHashMap.newKeySet()).add(username);
-    roomAllMembers.computeIfAbsent(roomId, k -> ConcurrentHashMap.newKeySet()).add(username);
-    log(username + " joined room: " + roomId);
+  public void leaveRoom(String roomId, String username) {
+    roomActors.submit(roomId, () -> exitRoom(roomId, username));
+  }
 
-    // 안읽은 메시지 수 초기화
-    Map<String, Integer> roomUnread = unreadCounts.get(roomId);
-    if (roomUnread != null) {
-      int previousUnread = roomUnread.getOrDefault(username, 0);
-      roomUnread.put(username, 0);
-      if (previousUnread > 0) {
-        // 해당 사용자에게 unread 초기화 알림
-        broadcastUnreadUpdate(roomId, username, 0);
-      }
+  private void enterRoom(String roomId, String username, long sinceSeq) {
+    if (activeRoomUsers.computeIfAbsent(roomId, k -> new IntSet()).add(users.intern(username))) {
+      roomsOf(activeRoomsByUser, username).add(roomId);
     }
+    addMember(roomId, username);
+    if (handlerFor(username) == null) {
+      // 입장 작업이 실행되기 전에 접속이 끊긴 경우 (removeClient가 색인을 먼저 읽었을 수 있으므로 직접 정리)
+      exitRoom(roomId, username);
+      return;
+    }
+    log(username + " joined room: " + roomId);
+
+    // 안읽은 메시지 수 초기화 (읽음 위치를 현재 마지막 메시지로 이동)
+    unread.markRead(roomId, username, true);
 
     // Send chat history to the user who just joined
-    sendChatHistory(roomId, username);
+    sendChatHistory(roomId, username, sinceSeq);
   }
 
-  public void leaveRoom(String roomId, String username) {
-    Set<String> active = activeRoomUsers.get(roomId);
-    if (active != null) {
-      active.remove(username);
+  private void exitRoom(String roomId, String username) {
+    IntSet active = activeRoomUsers.get(roomId);
+    if (active != null && active.remove(users.idOf(username))) {
+      roomsOf(activeRoomsByUser, username).remove(roomId);
+      // 보고 있던 메시지까지 읽은 것으로 처리 (이후 메시지부터 안읽음)
+      unread.markRead(roomId, username, false);
       if (active.isEmpty()) {
         activeRoomUsers.remove(roomId);
         // Note: We might want to keep roomAllMembers? For now, if no one is active,
@@ -176,18 +209,23 @@ public class SocketServer {
   public void broadcastToRoom(String roomId, String message, String senderUsername) {
     // Ensure room members are set for 1:1 chats
     ensureRoomMembers(roomId);
+    broadcastToMembers(roomId, message, senderUsername);
+  }
 
-    Set<String> members = roomAllMembers.get(roomId);
+  /**
+   * 현재 멤버에게만 전송 (멤버 목록을 바꾸지 않으므로 방 액터 밖에서도 호출 가능)
+   * 입력중 표시처럼 방 작업이 아닌 상태 전송에 사용
+   */
+  void broadcastToMembers(String roomId, String message, String senderUsername) {
+    IntSet members = roomAllMembers.get(roomId);
     if (members == null || members.isEmpty()) {
       log("No members found for room: " + roomId);
       return;
     }
 
-    log("Broadcasting to room " + roomId + " (members: " + members + "): " + message);
+    log("Broadcasting to room " + roomId + " (members: " + namesOf(members) + "): " + message);
     for (SocketClientHandler client : clients) {
-      if (client.getUsername() != null &&
-          members.contains(client.getUsername()) &&
-          !client.getUsername().equals(senderUsername)) {
+      if (members.contains(client.getUserId()) && !client.getUsername().equals(senderUsername)) {
         client.sendMessage(message);
       }
     }
@@ -199,15 +237,15 @@ public class SocketServer {
   public void broadcastGameResultToRoom(String roomId, String message) {
     ensureRoomMembers(roomId);
 
-    Set<String> members = roomAllMembers.get(roomId);
+    IntSet members = roomAllMembers.get(roomId);
     if (members == null || members.isEmpty()) {
       log("No members found for room: " + roomId);
       return;
     }
 
-    log("Broadcasting game result to room " + roomId + " (members: " + members + "): " + message);
+    log("Broadcasting game result to room " + roomId + " (members: " + namesOf(members) + "): " + message);
     for (SocketClientHandler client : clients) {
-      if (client.getUsername() != null && members.contains(client.getUsername())) {
+      if (members.contains(client.getUserId())) {
         client.sendMessage(message);
       }
     }
@@ -218,14 +256,14 @@ public class SocketServer {
     updateClientCount();
     log("Client disconnected: " + client.getUsername());
 
-    // Remove from all rooms
+    // Remove from all rooms (같은 이름으로 다시 로그인한 새 연결이 있으면 그 상태는 건드리지 않음)
     String username = client.getUsername();
-    if (username != null) {
-      for (String roomId : activeRoomUsers.keySet()) {
+    if (username != null && handlersByUser.remove(username, client)) {
+      for (String roomId : activeRoomsOf(username)) {
         leaveRoom(roomId, username);
       }
-      broadcast("USER_LEFT:" + username, client);
-      broadcastUserList();
+      typing.userOffline(username, memberRoomsOf(username));
+      presence.userOffline(username);
     }
   }
 
@@ -235,23 +273,92 @@ public class SocketServer {
 
   public static class SocketClientHandler implements Runnable {
     private Socket socket;
-    private BufferedReader reader;
-    private PrintWriter writer;
+    private BoundedLineReader reader; // 프레임 크기 제한을 읽는 동안 적용
+    private volatile PrintWriter writer; // 핸드셰이크 후 설정 (송신 스레드 전용)
+    private final OutboundQueue outbound = new OutboundQueue(); // 우선순위별 송신 대기열
     private boolean running = false;
     private SocketServer server;
     private String username;
+    private volatile int userId = SymbolTable.NONE; // 로그인 전에는 NONE (어느 방의 멤버도 아님)
+    private final ConnectionCodec codec = new ConnectionCodec(); // 스트림 구성 및 압축 지표
+    private java.util.Set<String> caps = java.util.Collections.emptySet(); // 합의된 기능 (레거시는 없음)
+    private volatile long lastActivity = System.currentTimeMillis(); // 마지막으로 줄을 받은 시각
 
     public SocketClientHandler(Socket socket, SocketServer server) throws Exception {
       this.socket = socket;
       this.server = server;
-      this.reader = new BufferedReader(new java.io.InputStreamReader(socket.getInputStream()));
-      this.writer = new PrintWriter(socket.getOutputStream(), true);
+    }
+
+    /**
+     * 첫 줄을 버퍼 없이 읽고 기능을 합의한 뒤 스트림 구성
+     * HELLO:version:caps -> WELCOME:version:agreedCaps:limits (이 줄까지는 압축하지 않음)
+     * 바로 LOGIN:username이 오면 레거시 클라이언트로 처리
+     *
+     * @return 처리할 첫 줄
+     */
+    private String handshake() throws java.io.IOException {
+      String first = ConnectionCodec.readLineUnbuffered(socket.getInputStream(), Protocol.MAX_FRAME_BYTES);
+      boolean hello = first != null && first.startsWith("HELLO:");
+      if (hello) {
+        String[] parts = first.split(":", 3);
+        caps = Protocol.negotiate(parts.length == 3 ? parts[2] : "");
+        java.io.OutputStream raw = socket.getOutputStream();
+        raw.write(("WELCOME:" + Protocol.VERSION + ":" + String.join(",", caps) + ":" + Protocol.limits() + "\n")
+            .getBytes());
+        raw.flush();
+        server.log("Handshake: client v" + parts[1] + " caps=" + caps);
+      } else {
+        server.log("Legacy client (no HELLO)");
+      }
+
+      boolean deflate = caps.contains(Protocol.CAP_DEFLATE);
+      reader = new BoundedLineReader(codec.wrapInput(socket.getInputStream(), deflate), Protocol.MAX_FRAME_BYTES,
+          java.nio.charset.Charset.defaultCharset(),
+          bytes -> server.log("Dropped oversized frame from " + username + " (" + bytes + " bytes)"));
+      PrintWriter out = new PrintWriter(codec.wrapOutput(socket.getOutputStream(), deflate));
+      writer = out;
+      Thread writerThread = new Thread(() -> writeLoop(out), "client-writer");
+      writerThread.setDaemon(true);
+      writerThread.start();
+      return hello ? reader.readLine() : first;
+    }
+
+    /**
+     * 유휴 검사 예약: 마지막 수신 후 IDLE_TIMEOUT_MS가 지났으면 연결 종료
+     * 수신할 때마다 타이머를 다시 걸지 않고 lastActivity만 갱신하며, 만료 시점에 남은 시간만큼 다시 예약
+     */
+    private void scheduleIdleCheck(long delayMs) {
+      server.timers.schedule(delayMs, () -> {
+        if (!running)
+          return;
+        long idle = System.currentTimeMillis() - lastActivity;
+        if (idle >= Protocol.IDLE_TIMEOUT_MS) {
+          server.log("Closing idle connection: " + username + " (no data for " + idle + "ms)");
+          stop(); // 리더 스레드의 readLine이 예외로 끝나면서 removeClient 처리
+        } else {
+          scheduleIdleCheck(Protocol.IDLE_TIMEOUT_MS - idle);
+        }
+      });
+    }
+
+    /** 핸드셰이크에서 합의된 기능인지 */
+    public boolean supports(String cap) {
+      return caps.contains(cap);
+    }
+
+    /** 연결별 압축률 지표 */
+    public String getCompressionStats() {
+      return codec.getStats();
     }
 
     public String getUsername() {
       return username;
     }
 
+    int getUserId() {
+      return userId;
+    }
+
     public String getStatusMessage() {
       return statusMessage;
     }
@@ -261,23 +368,53 @@ public class SocketServer {
     @Override
     public void run() {
       running = true;
+      scheduleIdleCheck(Protocol.IDLE_TIMEOUT_MS); // 핸드셰이크 없이 멈춘 연결도 정리
       try {
-        String line;
-        while (running && (line = reader.readLine()) != null) {
+        for (String next = handshake(); running && next != null; next = reader.readLine()) {
+          String line = next; // 방 액터에 넘기는 작업에서 사용
+          lastActivity = System.currentTimeMillis();
           server.log("Received: " + line);
 
           if (line.startsWith("LOGIN:")) {
             this.username = line.substring(6);
+            this.userId = server.users.intern(username);
             server.log("User logged in: " + username);
-            server.broadcast("USER_JOINED:" + username, this);
-            server.broadcastUserList();
+            server.handlersByUser.put(username, this);
+            // 채팅 목록과 안읽은 수를 한 번에 전송 (이후에는 UPDATE_CHAT_LIST/UNREAD_UPDATE로 갱신)
+            // 잠든 방을 불러오는 동안 이 스레드는 다음 줄을 계속 읽음
+            // 접속하지 않은 동안 보관된 초대/알림은 지금 꺼내 두고 채팅 목록 다음에 한 번에 전달
+            List<String> missed = server.mailbox.drain(username);
+            String loginName = username;
+            server.buildRoomList(username).thenAccept(roomList -> {
+              sendMessage(roomList);
+              if (!missed.isEmpty()) {
+                server.log("Delivering " + missed.size() + " offline events to " + loginName);
+                sendBatch(missed);
+              }
+            });
+            server.presence.userOnline(this);
 
           } else if (line.startsWith("JOIN_ROOM:")) {
-            // Format: JOIN_ROOM:roomId:username
-            String[] parts = line.split(":", 3);
-            if (parts.length == 3) {
+            // Format: JOIN_ROOM:roomId:username[:sinceSeq]
+            String[] parts = line.split(":", 4);
+            if (parts.length >= 3) {
               String roomId = parts[1];
-              server.joinRoom(roomId, username);
+              long sinceSeq = 0;
+              if (parts.length == 4) {
+                try {
+                  sinceSeq = Long.parseLong(parts[3]);
+                } catch (NumberFormatException e) {
+                  // 잘못된 값이면 전체 히스토리 전송
+                }
+              }
+              server.joinRoom(roomId, username, sinceSeq);
+            }
+
+          } else if (line.startsWith("LEAVE_ROOM:")) {
+            // Format: LEAVE_ROOM:roomId:username (채팅방 화면을 닫거나 다른 화면으로 이동)
+            String[] parts = line.split(":", 3);
+            if (parts.length >= 2 && username != null) {
+              server.leaveRoom(parts[1], username);
             }
 
           } else if (line.startsWith("ROOM_MSG:")) {
@@ -285,61 +422,76 @@ public class SocketServer {
             String[] parts = line.split(":", 4);
             if (parts.length == 4) {
               String roomId = parts[1];
-              String content = parts[3];
+              server.roomActors.submit(roomId, () -> {
+                String content = parts[3];
 
-              // Calculate Unread Count
-              // unread = allMembers - activeMembers
-              Set<String> members = server.roomAllMembers.get(roomId);
-              Set<String> active = server.activeRoomUsers.get(roomId);
-              int totalMembers = (members != null) ? members.size() : 0;
-              int activeCount = (active != null) ? active.size() : 0;
-              // Ensure we count the sender as 'active' logic if they just sent it?
-              // Sender is in active if they joined.
-              int unreadCount = Math.max(0, totalMembers - activeCount);
+                // 1:1 방 멤버를 먼저 채워야 새 멤버의 읽음 위치가 이 메시지 이전으로 잡힘
+                server.ensureRoomMembers(roomId);
+                long seq = server.nextSeq(roomId);
+                server.unread.onMessage(roomId, username, seq);
+                // 보내는 시점에 방을 보고 있지 않은 멤버 수 (집합 크기만 사용, 이후 변화는 READ_UPTO로 갱신)
+                int unreadCount = server.unread.unreadAtSend(roomId, userId);
 
-              // New Format: ROOM_MSG:roomId:sender:unreadCount:content
-              String enrichedMsg = "ROOM_MSG:" + roomId + ":" + username + ":" + unreadCount + ":" + content;
+                // New Format: ROOM_MSG:roomId:seq:sender:unreadCount:content
+                String enrichedMsg = "ROOM_MSG:" + roomId + ":" + seq + ":" + username + ":" + unreadCount + ":" + content;
 
-              // Save message to history
-              server.saveMessage(roomId, enrichedMsg);
+                // Save message to history
+                server.saveMessage(roomId, enrichedMsg);
 
-              server.broadcastToRoom(roomId, enrichedMsg, username);
+                server.broadcastToRoom(roomId, enrichedMsg, username);
+                sendMessage("ROOM_ACK:" + roomId + ":" + seq);
+                server.typing.clear(roomId, username);
 
-              // 안읽은 메시지 수 증가 (방에 없는 사용자들)
-              server.incrementUnreadCounts(roomId, username);
-
-              server.notifyChatListUpdate(roomId, content, username);
+                server.notifyChatListUpdate(roomId, content, username);
+              });
             }
 
           } else if (line.startsWith("ROOM_IMG:")) {
-            // Format: ROOM_IMG:roomId:sender:base64
+            // Format: ROOM_IMG:roomId:sender:base64 (roomId 뒤에 seq를 붙여 전달)
             String[] parts = line.split(":", 4);
             if (parts.length == 4) {
               String roomId = parts[1];
-              server.broadcastToRoom(roomId, line, username);
-              server.notifyChatListUpdate(roomId, "사진", username);
+              server.roomActors.submit(roomId, () -> {
+                long seq = server.nextSeq(roomId);
+                server.broadcastToRoom(roomId, SocketServer.withSeq(line, seq), username);
+                sendMessage("ROOM_ACK:" + roomId + ":" + seq);
+                server.unread.onMessage(roomId, username, seq);
+                server.notifyChatListUpdate(roomId, "사진", username);
+              });
             }
 
           } else if (line.startsWith("ROOM_EMOJI:")) {
-            // Format: ROOM_EMOJI:roomId:sender:emojiName
+            // Format: ROOM_EMOJI:roomId:sender:emojiName (roomId 뒤에 seq를 붙여 저장/전달)
             String[] parts = line.split(":", 4);
             if (parts.length == 4) {
               String roomId = parts[1];
-              // 히스토리에 저장 (채팅방 재입장 시 이모티콘 유지)
-              server.saveMessage(roomId, line);
-              server.broadcastToRoom(roomId, line, username);
-              server.notifyChatListUpdate(roomId, "이모티콘", username);
+              server.roomActors.submit(roomId, () -> {
+                // 히스토리에 저장 (채팅방 재입장 시 이모티콘 유지)
+                long seq = server.nextSeq(roomId);
+                String sequenced = SocketServer.withSeq(line, seq);
+                server.saveMessage(roomId, sequenced);
+                server.broadcastToRoom(roomId, sequenced, username);
+                sendMessage("ROOM_ACK:" + roomId + ":" + seq);
+                server.unread.onMessage(roomId, username, seq);
+                server.notifyChatListUpdate(roomId, "이모티콘", username);
+              });
             }
 
           } else if (line.startsWith("ROOM_GAME_INVITE:")) {
-            // Format: ROOM_GAME_INVITE:roomId:sender:gameType
+            // Format: ROOM_GAME_INVITE:roomId:sender:gameType (roomId 뒤에 seq를 붙여 저장/전달)
             String[] parts = line.split(":", 4);
             if (parts.length == 4) {
               String roomId = parts[1];
-              // Save to history
-              server.saveMessage(roomId, line);
-              server.broadcastToRoom(roomId, line, username);
-              server.notifyChatListUpdate(roomId, "게임 초대", username);
+              server.roomActors.submit(roomId, () -> {
+                // Save to history
+                long seq = server.nextSeq(roomId);
+                String sequenced = SocketServer.withSeq(line, seq);
+                server.saveMessage(roomId, sequenced);
+                server.broadcastToRoom(roomId, sequenced, username);
+                sendMessage("ROOM_ACK:" + roomId + ":" + seq);
+                server.unread.onMessage(roomId, username, seq);
+                server.notifyChatListUpdate(roomId, "게임 초대", username);
+              });
             }
 
           } else if (line.startsWith("INVITE:")) {
@@ -347,18 +499,23 @@ public class SocketServer {
             String[] parts = line.split(":", 3);
             if (parts.length == 3) {
               String roomId = parts[1];
-              String targetUser = parts[2];
-              // Find target user and send invitation
-              for (SocketClientHandler client : server.getClients()) {
-                if (targetUser.equals(client.getUsername())) {
-                  client.sendMessage("INVITATION:" + roomId + ":" + username);
-                  // Add to roomAllMembers immediately so they count as a member even before
-                  // joining active
-                  server.roomAllMembers.computeIfAbsent(roomId, k -> ConcurrentHashMap.newKeySet()).add(targetUser);
-                  server.roomAllMembers.get(roomId).add(username); // Ensure inviter is also a member
-                  break;
+              server.roomActors.submit(roomId, () -> {
+                String targetUser = parts[2];
+                // Add to roomAllMembers immediately so they count as a member even before
+                // joining active
+                server.addMember(roomId, targetUser);
+                server.addMember(roomId, username); // Ensure inviter is also a member
+                server.unread.memberAdded(roomId, targetUser);
+
+                // 접속 중이 아니면 보관했다가 로그인 시 전달
+                String invitation = "INVITATION:" + roomId + ":" + username;
+                SocketClientHandler target = server.handlerFor(targetUser);
+                if (target != null) {
+                  target.sendMessage(invitation);
+                } else {
+                  server.mailbox.put(targetUser, "invite:" + roomId, invitation);
                 }
-              }
+              });
             }
 
           } else if (line.startsWith("MSG:") || line.startsWith("IMG:")) {
@@ -373,28 +530,41 @@ public class SocketServer {
               String gameType = parts[2];
               String scoreMsg = parts[3];
 
-              // Try to parse score from message and save (username is null for game clients)
+              // 점수는 로그인한 연결이 보낸 결과만 그 사용자 점수로 반영 (문구 속 이름으로 기록하지 않음)
+              // 로그인하지 않은 게임 클라이언트의 결과는 방 표시만 하고, 점수는 GAME_SCORE 경로로 받음
               if (username != null) {
-                server.saveGameScore(username, gameType, scoreMsg);
+                server.scores.submitLegacy(username, gameType, scoreMsg);
               } else {
-                // 게임 클라이언트에서 전송 시 메시지에서 유저명 추출
-                java.util.regex.Matcher m = java.util.regex.Pattern.compile("^(.+?)님").matcher(scoreMsg);
-                if (m.find()) {
-                  server.saveGameScore(m.group(1), gameType, scoreMsg);
-                }
+                server.log("Not recording score from unauthenticated connection: " + line);
               }
 
               // 모든 방 멤버에게 게임 결과 전송 (발신자 제외 없이 전체 전송)
-              server.broadcastGameResultToRoom(roomId, line);
+              server.roomActors.submit(roomId, () -> server.broadcastGameResultToRoom(roomId, line));
+            }
+          } else if (line.startsWith("GAME_SCORE:")) {
+            // Format: GAME_SCORE:roomId:username:gameType:score:outcome
+            network.dto.GameScoreMessage result = network.dto.GameScoreMessage.parse(line);
+            if (result == null) {
+              server.log("Dropped malformed game score: " + line);
+            } else if (username == null) {
+              // 구조화된 점수는 로그인한 본인 점수만 받음 (게임 프로세스 결과는 채팅 클라이언트가 전달)
+              server.log("Dropped game score before login: " + line);
+            } else if (!username.equals(result.getUsername())) {
+              server.log("Dropped game score for another user from " + username + ": " + line);
+            } else {
+              server.scores.submit(result);
+              // 방에는 기존 클라이언트도 표시할 수 있는 GAME_RESULT 문구로 전송
+              String roomId = result.getRoomId();
+              String display = "GAME_RESULT:" + roomId + ":" + result.getGameType() + ":" + result.toDisplayText();
+              server.roomActors.submit(roomId, () -> server.broadcastGameResultToRoom(roomId, display));
             }
           } else if (line.startsWith("TYPING:")) {
             // Format: TYPING:roomId:username:START or TYPING:roomId:username:STOP
             String[] parts = line.split(":", 4);
-            if (parts.length == 4) {
+            if (parts.length == 4 && username != null) {
               String roomId = parts[1];
-              String typingUser = parts[2];
-              // 입력중 상태를 방의 다른 멤버들에게 전송
-              server.broadcastToRoom(roomId, line, typingUser);
+              // 입력중 상태는 집계기에 기록만 하고 전송은 주기적으로 묶어서 처리
+              server.typing.onTyping(roomId, username, "START".equals(parts[3]));
             }
           } else if (line.startsWith("GET_PROFILE:")) {
             // Format: GET_PROFILE:targetUsername
@@ -406,7 +576,7 @@ public class SocketServer {
             String newStatus = line.substring(14);
             this.statusMessage = newStatus;
             server.log(username + " updated status: " + newStatus);
-            server.broadcastUserList(); // Broadcast change
+            server.presence.statusChanged(username, newStatus);
 
           } else if (line.equals("PING")) {
             sendMessage("PONG");
@@ -417,17 +587,68 @@ public class SocketServer {
           // e.printStackTrace(); // Suppress error on disconnect
         }
       } finally {
+        server.log("Connection closed: " + username + " (" + codec.getStats() + ")");
         stop();
         server.removeClient(this);
       }
     }
 
+    /**
+     * 송신 스레드: 대기열에서 우선순위 순으로 꺼낸 묶음을 쓰고 묶음마다 한 번만 flush
+     * BATCH를 지원하는 클라이언트에는 직전 전송 직후 다시 프레임이 생긴 경우(바쁜 방)에만
+     * BATCH_WINDOW_MS 동안 더 모아서 BATCH:n 헤더와 함께 전송 (한가할 때는 지연 없음)
+     */
+    private void writeLoop(PrintWriter out) {
+      boolean batching = caps.contains(Protocol.CAP_BATCH) && Protocol.BATCH_WINDOW_MS > 0;
+      long lastFlush = 0;
+      try {
+        for (List<String> frames = outbound.take(); frames != null; frames = outbound.take()) {
+          if (batching && System.currentTimeMillis() - lastFlush < Protocol.BATCH_WINDOW_MS) {
+            Thread.sleep(Protocol.BATCH_WINDOW_MS);
+            frames.addAll(outbound.poll());
+          }
+          if (batching && frames.size() > 1) {
+            out.print("BATCH:" + frames.size());
+            out.print('\n');
+          }
+          for (String frame : frames) {
+            out.print(frame);
+            out.print('\n');
+          }
+          out.flush();
+          lastFlush = System.currentTimeMillis();
+          if (out.checkError()) { // 상대가 끊긴 경우 리더 스레드도 정리되도록 종료
+            stop();
+            break;
+          }
+        }
+      } catch (InterruptedException e) {
+        // 연결 종료
+      }
+    }
+
+    /** 송신 대기열에 추가 (호출 스레드는 소켓 쓰기를 기다리지 않음) */
     public void sendMessage(String message) {
-      writer.println(message);
+      if (writer == null) // 핸드셰이크 전에는 전송하지 않음
+        return;
+      String frame = Protocol.downgrade(message, caps);
+      if (frame != null && !outbound.offer(frame)) {
+        server.log("Closing slow connection: " + username + " (over " + OutboundQueue.MAX_PENDING_CHAT
+            + " frames or " + OutboundQueue.MAX_PENDING_CHAT_BYTES / (1024 * 1024) + " MB pending)");
+        stop();
+      }
+    }
+
+    /** 여러 프레임을 순서대로 추가 (송신 스레드가 한 번에 모아서 flush) */
+    void sendBatch(List<String> messages) {
+      for (String message : messages) {
+        sendMessage(message);
+      }
     }
 
     public void stop() {
       running = false;
+      outbound.close();
       try {
         if (socket != null && !socket.isClosed()) {
           socket.close();
@@ -442,101 +663,184 @@ public class SocketServer {
 
   public void notifyChatListUpdate(String roomId, String lastMessage, String sender) {
     ensureRoomMembers(roomId);
-    Set<String> members = roomAllMembers.get(roomId);
+    IntSet members = roomAllMembers.get(roomId);
     if (members != null) {
-      members.add(sender); // Ensure sender is included
+      addMember(roomId, sender); // Ensure sender is included
+      roomLastMessages.put(roomId, new LastMessage(lastMessage, System.currentTimeMillis()));
 
       String chatListUpdate = "UPDATE_CHAT_LIST:" + roomId + ":" + lastMessage;
       for (SocketClientHandler client : clients) {
-        if (client.getUsername() != null && members.contains(client.getUsername())) {
+        if (members.contains(client.getUserId())) {
           client.sendMessage(chatListUpdate);
         }
       }
+
+      // 1:1 채팅방은 접속하지 않은 상대에게 마지막 알림만 보관
+      if (isDirectRoom(roomId)) {
+        for (int member : members.toArray()) {
+          String name = users.nameOf(member);
+          if (handlerFor(name) == null) {
+            mailbox.put(name, "chat:" + roomId, chatListUpdate);
+          }
+        }
+      }
     }
   }
 
-  private void ensureRoomMembers(String roomId) {
-    // For 1:1 chat format (userA_userB), always ensure both users are added
-    if (roomId.contains("_") && !roomId.startsWith("group_")) {
-      String[] users = roomId.split("_");
-      if (users.length == 2) {
-        Set<String> members = roomAllMembers.computeIfAbsent(roomId, k -> ConcurrentHashMap.newKeySet());
-        boolean added = false;
-        if (!members.contains(users[0])) {
-          members.add(users[0]);
-          added = true;
-        }
-        if (!members.contains(users[1])) {
-          members.add(users[1]);
-          added = true;
-        }
-        if (added) {
-          log("Ensured room members for " + roomId + ": " + members);
-        }
+  /**
+   * 사용자가 속한 채팅방 목록 스냅샷 (최근 메시지 순)
+   * 파일로 옮겨진 방은 먼저 각 액터에서 불러온 뒤 만들므로 호출 스레드는 기다리지 않음
+   */
+  java.util.concurrent.CompletableFuture<String> buildRoomList(String username) {
+    List<String> memberRooms = memberRoomsOf(username);
+    List<String> dormantRooms = new java.util.ArrayList<>();
+    for (String roomId : memberRooms) {
+      if (lifecycle.isDormant(roomId)) {
+        dormantRooms.add(roomId);
       }
     }
+    return lifecycle.whenLoaded(dormantRooms).thenApply(loaded -> snapshotRoomList(username, memberRooms));
   }
 
-  private void saveGameScore(String username, String gameType, String scoreMsg) {
-    // Try to extract numeric score from message
-    // Typical format: "username님 결과 - 승리 (150 vs 120)" or "username님 결과 - 승리"
-    try {
-      int score = 0;
+  private String snapshotRoomList(String username, List<String> memberRooms) {
+    List<network.dto.RoomListMessage.Entry> rooms = new java.util.ArrayList<>();
+    for (String roomId : memberRooms) {
+      LastMessage last = roomLastMessages.get(roomId);
+      rooms.add(new network.dto.RoomListMessage.Entry(roomId,
+          last != null ? last.text : "", last != null ? last.timestamp : 0,
+          unread.unreadCount(roomId, username), getRoomMembers(roomId).size()));
+    }
+    rooms.sort((a, b) -> Long.compare(b.getTimestamp(), a.getTimestamp()));
+    return new network.dto.RoomListMessage(rooms).serialize();
+  }
 
-      // Try to find a number in the message
-      java.util.regex.Matcher m = java.util.regex.Pattern.compile("\\((\\d+)\\s*vs").matcher(scoreMsg);
-      if (m.find()) {
-        score = Integer.parseInt(m.group(1));
-      } else {
-        // Try to find any number in parentheses
-        m = java.util.regex.Pattern.compile("\\d+").matcher(scoreMsg);
-        if (m.find()) {
-          score = Integer.parseInt(m.group());
-        }
-      }
+  /** 현재 멤버 수 (멤버 목록을 바꾸지 않으므로 방 액터 밖에서도 호출 가능) */
+  int getRoomMemberCount(String roomId) {
+    IntSet members = roomAllMembers.get(roomId);
+    return members != null ? members.size() : 0;
+  }
 
-      // Also give points for wins
-      if (scoreMsg.contains("승리")) {
-        score += 100; // Bonus for winning
-      }
+  /** 1:1 채팅방 ID 형식 (userA_userB) */
+  private static boolean isDirectRoom(String roomId) {
+    return roomId.contains("_") && !roomId.startsWith("group_");
+  }
 
-      if (score > 0) {
-        Map<String, Integer> userScores = userGameScores.computeIfAbsent(username, k -> new ConcurrentHashMap<>());
-        int currentBest = userScores.getOrDefault(gameType, 0);
-        if (score > currentBest) {
-          userScores.put(gameType, score);
-          log("Updated best score for " + username + " in " + gameType + ": " + score);
+  private void ensureRoomMembers(String roomId) {
+    // For 1:1 chat format (userA_userB), always ensure both users are added
+    if (isDirectRoom(roomId)) {
+      String[] pair = roomId.split("_");
+      if (pair.length == 2) {
+        boolean added = addMember(roomId, pair[0]);
+        added |= addMember(roomId, pair[1]);
+        if (added) {
+          log("Ensured room members for " + roomId + ": " + namesOf(getRoomMembers(roomId)));
         }
       }
-    } catch (Exception e) {
-      log("Failed to parse score from message: " + scoreMsg);
     }
   }
 
   private String getProfileData(String username) {
     // Return format: "SPACE:score,BRICK:score,TYPING:score,VOLLEY:score"
-    Map<String, Integer> scores = userGameScores.getOrDefault(username, new ConcurrentHashMap<>());
-    StringBuilder sb = new StringBuilder();
-    sb.append("SPACE:").append(scores.getOrDefault("SPACE", 0));
-    sb.append(",BRICK:").append(scores.getOrDefault("BRICK", 0));
-    sb.append(",TYPING:").append(scores.getOrDefault("TYPING", 0));
-    sb.append(",VOLLEY:").append(scores.getOrDefault("VOLLEY", 0));
-    return sb.toString();
-  }
-
-  public void saveMessage(String roomId, String message) {
-    java.util.List<String> history = roomChatHistory.computeIfAbsent(roomId,
-        k -> java.util.Collections.synchronizedList(new java.util.ArrayList<>()));
-    history.add(message);
+    return scores.profileOf(username);
+  }
+
+  /** 방의 마지막 메시지 순번 (메시지가 없으면 SEQ_BASE) */
+  long headSeq(String roomId) {
+    java.util.concurrent.atomic.AtomicLong seq = roomSeqs.get(roomId);
+    return seq != null ? seq.get() : SEQ_BASE;
+  }
+
+  /** 사용자(ID)가 채팅방 화면을 보고 있는지 */
+  boolean isActive(String roomId, int user) {
+    IntSet active = activeRoomUsers.get(roomId);
+    return active != null && active.contains(user);
+  }
+
+  /** 채팅방 화면을 보고 있는 사용자 ID (없으면 빈 집합) */
+  IntSet getActiveUsers(String roomId) {
+    IntSet active = activeRoomUsers.get(roomId);
+    return active != null ? active : NO_USERS;
+  }
+
+  /** 채팅방 멤버 ID (없으면 빈 집합) */
+  IntSet getRoomMembers(String roomId) {
+    IntSet members = roomAllMembers.get(roomId);
+    return members != null ? members : NO_USERS;
+  }
+
+  /** 방 멤버 추가 (역방향 색인도 함께 갱신), 새로 추가되었으면 true */
+  private boolean addMember(String roomId, String username) {
+    if (!roomAllMembers.computeIfAbsent(roomId, k -> new IntSet()).add(users.intern(username)))
+      return false;
+    roomsOf(memberRoomsByUser, username).add(roomId);
+    return true;
+  }
+
+  private static java.util.Set<String> roomsOf(Map<String, java.util.Set<String>> index, String username) {
+    return index.computeIfAbsent(username, k -> ConcurrentHashMap.newKeySet());
+  }
+
+  /** 사용자가 멤버인 방 (스냅샷) */
+  List<String> memberRoomsOf(String username) {
+    java.util.Set<String> rooms = memberRoomsByUser.get(username);
+    return rooms != null ? new java.util.ArrayList<>(rooms) : java.util.Collections.emptyList();
+  }
+
+  /** 사용자가 보고 있는 방 (스냅샷) */
+  List<String> activeRoomsOf(String username) {
+    java.util.Set<String> rooms = activeRoomsByUser.get(username);
+    return rooms != null ? new java.util.ArrayList<>(rooms) : java.util.Collections.emptyList();
+  }
+
+  /** 로그 출력용 멤버 이름 목록 */
+  private List<String> namesOf(IntSet members) {
+    List<String> names = new java.util.ArrayList<>();
+    for (int member : members.toArray()) {
+      names.add(users.nameOf(member));
+    }
+    return names;
+  }
+
+  /** 로그인한 사용자의 연결 (접속 중이 아니면 null) */
+  SocketClientHandler handlerFor(String username) {
+    return handlersByUser.get(username);
+  }
+
+  /** 방의 다음 메시지 순번 */
+  long nextSeq(String roomId) {
+    return roomSeqs.computeIfAbsent(roomId, k -> new java.util.concurrent.atomic.AtomicLong(SEQ_BASE))
+        .incrementAndGet();
+  }
+
+  /** TYPE:roomId:rest 프레임에 seq를 붙여 TYPE:roomId:seq:rest 형태로 변환 */
+  static String withSeq(String frame, long seq) {
+    int roomIdEnd = frame.indexOf(':', frame.indexOf(':') + 1);
+    return frame.substring(0, roomIdEnd) + ":" + seq + frame.substring(roomIdEnd);
+  }
+
+  /** 저장된 방 프레임(TYPE:roomId:seq:...)의 seq */
+  private static long seqOf(String frame) {
+    String[] parts = frame.split(":", 4);
+    try {
+      return parts.length >= 3 ? Long.parseLong(parts[2]) : 0;
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  /** 히스토리에 추가 (방 액터에서 호출) */
+  private void saveMessage(String roomId, String message) {
+    java.util.ArrayDeque<String> history = roomChatHistory.computeIfAbsent(roomId, k -> new java.util.ArrayDeque<>());
+    history.addLast(message);
     // Keep only last N messages
     while (history.size() > MAX_HISTORY_PER_ROOM) {
-      history.remove(0);
+      history.removeFirst();
     }
     log("Saved message to room " + roomId + " history (total: " + history.size() + ")");
   }
 
-  private void sendChatHistory(String roomId, String username) {
-    java.util.List<String> history = roomChatHistory.get(roomId);
+  private void sendChatHistory(String roomId, String username, long sinceSeq) {
+    java.util.ArrayDeque<String> history = roomChatHistory.get(roomId);
     if (history == null || history.isEmpty()) {
       log("No chat history for room " + roomId);
       return;
@@ -545,9 +849,11 @@ public class SocketServer {
     // Find the client for this user and send them the history
     for (SocketClientHandler client : clients) {
       if (username.equals(client.getUsername())) {
-        log("Sending " + history.size() + " history messages to " + username + " for room " + roomId);
+        log("Sending history to " + username + " for room " + roomId + " (since seq " + sinceSeq + ")");
         for (String msg : history) {
-          client.sendMessage("HISTORY:" + msg);
+          if (seqOf(msg) > sinceSeq) {
+            client.sendMessage("HISTORY:" + msg);
+          }
         }
         break;
       }
@@ -555,53 +861,58 @@ public class SocketServer {
   }
 
   /**
-   * 방에 없는 사용자들의 안읽은 메시지 수 증가
+   * 유휴 방 정리: 멤버 목록을 제외한 방 상태를 저장용 줄로 추가 (방 액터에서 호출)
+   * seq\thead, last\ttimestamp\ttext, history\tframe
    */
-  public void incrementUnreadCounts(String roomId, String senderUsername) {
-    Set<String> members = roomAllMembers.get(roomId);
-    Set<String> active = activeRoomUsers.get(roomId);
-    if (members == null)
-      return;
-
-    Map<String, Integer> roomUnread = unreadCounts.computeIfAbsent(roomId, k -> new ConcurrentHashMap<>());
-
-    for (String member : members) {
-      // 발신자는 제외, 방에 활성화되어 있는 사용자도 제외
-      if (member.equals(senderUsername))
-        continue;
-      if (active != null && active.contains(member))
-        continue;
-
-      int newCount = roomUnread.getOrDefault(member, 0) + 1;
-      roomUnread.put(member, newCount);
-
-      // 해당 사용자에게 unread 업데이트 알림
-      broadcastUnreadUpdate(roomId, member, newCount);
+  void exportRoomState(String roomId, List<String> lines) {
+    lines.add("seq\t" + headSeq(roomId));
+    LastMessage last = roomLastMessages.get(roomId);
+    if (last != null) {
+      lines.add("last\t" + last.timestamp + "\t" + last.text);
+    }
+    java.util.ArrayDeque<String> history = roomChatHistory.get(roomId);
+    if (history != null) {
+      for (String frame : history) {
+        lines.add("history\t" + frame);
+      }
     }
   }
 
-  /**
-   * 특정 사용자에게 안읽은 메시지 수 업데이트 전송
-   */
-  private void broadcastUnreadUpdate(String roomId, String username, int count) {
-    // Format: UNREAD_UPDATE:roomId:count
-    String message = "UNREAD_UPDATE:" + roomId + ":" + count;
-    for (SocketClientHandler client : clients) {
-      if (username.equals(client.getUsername())) {
-        client.sendMessage(message);
-        log("Sent unread update to " + username + " for room " + roomId + ": " + count);
-        break;
+  void dropRoomState(String roomId) {
+    roomChatHistory.remove(roomId);
+    roomSeqs.remove(roomId);
+    roomLastMessages.remove(roomId);
+  }
+
+  /** 저장된 줄에서 방 상태 복원 (방 액터에서 호출) */
+  void importRoomState(String roomId, List<String> lines) {
+    java.util.ArrayDeque<String> history = new java.util.ArrayDeque<>();
+    for (String line : lines) {
+      String[] fields = line.split("\t", 2);
+      if (fields.length != 2)
+        continue;
+      try {
+        if (fields[0].equals("seq")) {
+          roomSeqs.put(roomId, new java.util.concurrent.atomic.AtomicLong(Long.parseLong(fields[1])));
+        } else if (fields[0].equals("last")) {
+          String[] last = fields[1].split("\t", 2);
+          roomLastMessages.put(roomId, new LastMessage(last.length == 2 ? last[1] : "", Long.parseLong(last[0])));
+        } else if (fields[0].equals("history")) {
+          history.add(fields[1]);
+        }
+      } catch (NumberFormatException e) {
+        log("Skipped bad room state line for " + roomId + ": " + line);
       }
     }
+    if (!history.isEmpty()) {
+      roomChatHistory.put(roomId, history);
+    }
   }
 
   /**
    * 특정 사용자의 특정 방 안읽은 메시지 수 조회
    */
   public int getUnreadCount(String roomId, String username) {
-    Map<String, Integer> roomUnread = unreadCounts.get(roomId);
-    if (roomUnread == null)
-      return 0;
-    return roomUnread.getOrDefault(username, 0);
+    return unread.unreadCount(roomId, username);
   }
 }
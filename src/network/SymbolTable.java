@@ -0,0 +1,48 @@
+package network;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 이름(사용자명 등)과 0부터 연속된 정수 ID의 양방향 매핑
+ * 상태 테이블은 문자열 대신 ID를 보관하고 (IntSet, IntLongMap), 이름은 여기서 한 번만 보관
+ * 한 번 부여한 ID는 바뀌지 않음 (서버 실행 중 사용자 수만큼만 증가)
+ */
+class SymbolTable {
+  static final int NONE = -1; // 등록되지 않은 이름
+
+  private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+  private volatile String[] names = new String[64]; // id -> 이름
+
+  /** 이름의 ID (처음 보는 이름이면 새로 부여) */
+  int intern(String name) {
+    Integer id = ids.get(name);
+    if (id != null)
+      return id;
+    synchronized (this) {
+      id = ids.get(name);
+      if (id != null)
+        return id;
+      int next = ids.size();
+      String[] table = names;
+      if (next == table.length) {
+        table = Arrays.copyOf(table, table.length * 2);
+      }
+      table[next] = name;
+      names = table; // 배열에 쓴 뒤 공개 (읽는 쪽은 volatile 읽기 후 접근)
+      ids.put(name, next);
+      return next;
+    }
+  }
+
+  /** 이름의 ID (등록되지 않았으면 NONE) */
+  int idOf(String name) {
+    Integer id = ids.get(name);
+    return id != null ? id : NONE;
+  }
+
+  String nameOf(int id) {
+    return names[id];
+  }
+}
@@ -0,0 +1,93 @@
+package network;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 해시 타이밍 휠 (만료 작업 전용 타이머)
+ * 시간을 TICK_MS 단위 칸으로 나누고 작업을 만료 칸에 넣어 두었다가 칸이 돌아올 때 실행
+ * 등록과 취소가 O(1)이라 연결/입력중 상태처럼 자주 갱신되고 대부분 취소되는 타이머에 사용
+ *
+ * - 모든 작업은 스레드 하나("timing-wheel")에서 실행되므로 짧게 끝나야 함
+ * - 정밀도는 TICK_MS (만료 시각보다 최대 한 칸 늦게 실행)
+ * - 휠 한 바퀴보다 긴 작업은 남은 바퀴 수(rounds)를 세어 처리
+ */
+class TimingWheel {
+  static final long TICK_MS = 100; // 칸 하나의 시간
+  private static final int WHEEL_SIZE = 512; // 칸 수 (한 바퀴 약 51초, 2의 거듭제곱)
+
+  private final SocketServer server;
+  private final List<List<Timeout>> wheel = new ArrayList<>(WHEEL_SIZE); // 칸별 만료 작업
+  private long tick; // 다음에 처리할 칸 번호 (시작 후 누적)
+
+  private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+    Thread t = new Thread(r, "timing-wheel");
+    t.setDaemon(true);
+    return t;
+  });
+
+  /** 등록된 작업 (cancel 후에는 실행되지 않음) */
+  static final class Timeout {
+    private final Runnable task;
+    private long rounds; // 실행 전까지 남은 바퀴 수
+    private volatile boolean cancelled;
+
+    private Timeout(Runnable task, long rounds) {
+      this.task = task;
+      this.rounds = rounds;
+    }
+
+    void cancel() {
+      cancelled = true;
+    }
+  }
+
+  TimingWheel(SocketServer server) {
+    this.server = server;
+    for (int i = 0; i < WHEEL_SIZE; i++) {
+      wheel.add(new ArrayList<>());
+    }
+    scheduler.scheduleAtFixedRate(this::advance, TICK_MS, TICK_MS, TimeUnit.MILLISECONDS);
+  }
+
+  /** delayMs 뒤에 실행할 작업 등록 */
+  synchronized Timeout schedule(long delayMs, Runnable task) {
+    long ticks = Math.max(1, (delayMs + TICK_MS - 1) / TICK_MS);
+    long deadline = tick + ticks;
+    Timeout timeout = new Timeout(task, (ticks - 1) / WHEEL_SIZE);
+    wheel.get((int) (deadline & (WHEEL_SIZE - 1))).add(timeout);
+    return timeout;
+  }
+
+  /** 현재 칸의 만료 작업을 꺼내 실행 (취소된 작업은 버림) */
+  private void advance() {
+    List<Runnable> due = new ArrayList<>();
+    synchronized (this) {
+      tick++;
+      List<Timeout> bucket = wheel.get((int) (tick & (WHEEL_SIZE - 1)));
+      int kept = 0;
+      for (Timeout timeout : bucket) {
+        if (timeout.cancelled)
+          continue;
+        if (timeout.rounds > 0) {
+          timeout.rounds--;
+          bucket.set(kept++, timeout);
+        } else {
+          due.add(timeout.task);
+        }
+      }
+      bucket.subList(kept, bucket.size()).clear();
+    }
+
+    for (Runnable task : due) {
+      try {
+        task.run();
+      } catch (Exception e) {
+        server.log("Timer task failed: " + e);
+      }
+    }
+  }
+}
@@ -0,0 +1,124 @@
+package network;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 채팅방별 입력중 상태 집계 클래스
+ * TYPING 이벤트를 즉시 중계하지 않고 방마다 입력중인 사용자 목록으로 모아
+ * 일정 간격마다 최대 한 번만 전송 (리더 스레드는 상태만 갱신)
+ * STOP 없이 끊긴 입력 상태는 서버 타이밍 휠에서 만료 (갱신 시에는 만료 시각만 바꾸고 재등록하지 않음)
+ *
+ * Format: TYPING_USERS:roomId:user1,user2
+ */
+class TypingAggregator {
+  private static final long TYPING_TIMEOUT_MS = 5000; // STOP 없이 끊긴 입력 상태 만료 시간
+  private static final long EMIT_INTERVAL_MS = 300; // 방당 최소 전송 간격
+  static final int DEFAULT_MAX_ROOM_SIZE = 50; // 이 인원을 넘는 방은 입력중 표시 생략
+
+  private final SocketServer server;
+  private volatile int maxRoomSize = DEFAULT_MAX_ROOM_SIZE;
+
+  // roomId -> (username -> 만료 시각)
+  private final Map<String, Map<String, Long>> typingByRoom = new HashMap<>();
+  // 다음 전송 대상 방
+  private final Set<String> dirtyRooms = new LinkedHashSet<>();
+
+  private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+    Thread t = new Thread(r, "typing-aggregator");
+    t.setDaemon(true);
+    return t;
+  });
+
+  TypingAggregator(SocketServer server) {
+    this.server = server;
+    scheduler.scheduleAtFixedRate(this::tick, EMIT_INTERVAL_MS, EMIT_INTERVAL_MS, TimeUnit.MILLISECONDS);
+  }
+
+  void setMaxRoomSize(int maxRoomSize) {
+    this.maxRoomSize = maxRoomSize;
+  }
+
+  /** TYPING START/STOP 반영 (상태만 갱신하고 전송은 tick에서 처리) */
+  void onTyping(String roomId, String username, boolean isTyping) {
+    if (server.getRoomMemberCount(roomId) > maxRoomSize)
+      return;
+
+    synchronized (this) {
+      Map<String, Long> typing = typingByRoom.get(roomId);
+      if (isTyping) {
+        if (typing == null) {
+          typing = new LinkedHashMap<>();
+          typingByRoom.put(roomId, typing);
+        }
+        if (typing.put(username, System.currentTimeMillis() + TYPING_TIMEOUT_MS) == null) {
+          dirtyRooms.add(roomId);
+          scheduleExpiry(roomId, username, TYPING_TIMEOUT_MS);
+        }
+      } else {
+        clear(roomId, username);
+      }
+    }
+  }
+
+  private void scheduleExpiry(String roomId, String username, long delayMs) {
+    server.timers.schedule(delayMs, () -> expire(roomId, username));
+  }
+
+  /** 만료 시각이 지났으면 제거, 그 사이 START로 연장됐으면 남은 시간만큼 다시 등록 */
+  private synchronized void expire(String roomId, String username) {
+    Map<String, Long> typing = typingByRoom.get(roomId);
+    Long expiresAt = typing != null ? typing.get(username) : null;
+    if (expiresAt == null)
+      return;
+    long remaining = expiresAt - System.currentTimeMillis();
+    if (remaining > 0) {
+      scheduleExpiry(roomId, username, remaining);
+    } else {
+      clear(roomId, username);
+    }
+  }
+
+  /** 메시지 전송 등으로 입력이 끝난 사용자 제거 */
+  synchronized void clear(String roomId, String username) {
+    Map<String, Long> typing = typingByRoom.get(roomId);
+    if (typing != null && typing.remove(username) != null) {
+      dirtyRooms.add(roomId);
+    }
+  }
+
+  /** 접속 종료한 사용자를 속한 방들에서 제거 */
+  synchronized void userOffline(String username, List<String> rooms) {
+    for (String roomId : rooms) {
+      clear(roomId, username);
+    }
+  }
+
+  private void tick() {
+    Map<String, List<String>> updates = new LinkedHashMap<>();
+    synchronized (this) {
+      for (String roomId : dirtyRooms) {
+        Map<String, Long> typing = typingByRoom.get(roomId);
+        List<String> users = typing != null ? new ArrayList<>(typing.keySet()) : new ArrayList<>();
+        updates.put(roomId, users);
+        if (typing != null && typing.isEmpty()) {
+          typingByRoom.remove(roomId);
+        }
+      }
+      dirtyRooms.clear();
+    }
+
+    for (Map.Entry<String, List<String>> update : updates.entrySet()) {
+      server.broadcastToMembers(update.getKey(),
+          "TYPING_USERS:" + update.getKey() + ":" + String.join(",", update.getValue()), null);
+    }
+  }
+}
@@ -0,0 +1,239 @@
+package network;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 읽음 위치(watermark) 기반 안읽은 메시지 수 관리 클래스
+ * 방마다 마지막 seq(head)와 멤버별 마지막으로 읽은 seq만 보관하고
+ * 안읽은 수는 head - watermark로 필요할 때 계산 (메시지당 비용이 방 인원과 무관)
+ *
+ * 방을 보고 있는 사용자는 안읽은 수가 항상 0이고 방을 나갈 때 watermark를 head로 옮김.
+ * UNREAD_UPDATE는 새 메시지가 온 방만 모아 일정 간격마다 접속 중인 멤버에게 한 번씩 전송
+ *
+ * 말풍선별 안읽은 수도 같은 watermark로 계산: 메시지나 읽음 위치가 바뀐 방은
+ * 멤버들의 읽음 위치 분포(READ_UPTO)를 간격마다 최대 한 번 방을 보고 있는 사용자에게만 전송
+ *
+ * Format: UNREAD_UPDATE:roomId:count
+ *         READ_UPTO:roomId:floor:seq1*count1,seq2*count2,...
+ */
+class UnreadTracker {
+  private static final long FLUSH_INTERVAL_MS = 200; // 방당 최소 전송 간격
+  private static final int RECEIPT_WINDOW = 200; // 읽음 현황을 구분해서 보낼 최근 메시지 수
+
+  private final SocketServer server;
+
+  // roomId -> (사용자 ID -> 마지막으로 읽은 seq), 없으면 방의 시작 seq
+  private final Map<String, IntLongMap> watermarks = new ConcurrentHashMap<>();
+  // 다음 전송 대상 방
+  private final Set<String> dirtyRooms = new LinkedHashSet<>();
+  // 읽음 현황을 다시 보낼 방
+  private final Set<String> receiptRooms = new LinkedHashSet<>();
+
+  private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+    Thread t = new Thread(r, "unread-flusher");
+    t.setDaemon(true);
+    return t;
+  });
+
+  UnreadTracker(SocketServer server) {
+    this.server = server;
+    scheduler.scheduleAtFixedRate(this::flush, FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+  }
+
+  /** 새 메시지 반영 (발신자는 읽은 것으로 처리하고 방만 전송 대상으로 표시) */
+  void onMessage(String roomId, String sender, long seq) {
+    if (sender != null) {
+      watermarksOf(roomId).putMax(server.users.intern(sender), seq);
+    }
+    synchronized (this) {
+      dirtyRooms.add(roomId);
+      receiptRooms.add(roomId);
+    }
+  }
+
+  /** 초대로 추가된 멤버는 초대 이전 메시지를 읽은 것으로 처리 */
+  void memberAdded(String roomId, String username) {
+    watermarksOf(roomId).putIfAbsent(server.users.intern(username), server.headSeq(roomId));
+  }
+
+  /**
+   * 현재까지의 메시지를 읽은 것으로 처리 (방 입장/퇴장)
+   *
+   * @param notify 안읽은 메시지가 있었으면 해당 사용자에게 0을 전송할지
+   */
+  void markRead(String roomId, String username, boolean notify) {
+    IntLongMap room = watermarksOf(roomId);
+    int user = server.users.intern(username);
+    long head = server.headSeq(roomId);
+    long previous = room.get(user, SocketServer.SEQ_BASE);
+    room.putMax(user, head);
+    synchronized (this) {
+      receiptRooms.add(roomId);
+    }
+
+    if (notify && previous < head) {
+      SocketServer.SocketClientHandler client = server.handlerFor(username);
+      if (client != null) {
+        client.sendMessage("UNREAD_UPDATE:" + roomId + ":0");
+      }
+    }
+  }
+
+  /** 사용자의 방 안읽은 메시지 수 (방을 보고 있으면 0) */
+  int unreadCount(String roomId, String username) {
+    return unreadCount(roomId, server.users.idOf(username));
+  }
+
+  private int unreadCount(String roomId, int user) {
+    if (server.isActive(roomId, user))
+      return 0;
+    return (int) Math.max(0, server.headSeq(roomId) - watermarkOf(roomId, user));
+  }
+
+  /**
+   * 새 메시지의 말풍선 안읽은 수 (방 인원과 무관하게 O(1))
+   * 방을 보고 있지 않은 멤버 수에서 발신자를 뺌, 읽음 위치에 따른 보정은 flush의 READ_UPTO가 담당
+   */
+  int unreadAtSend(String roomId, int sender) {
+    IntSet members = server.getRoomMembers(roomId);
+    IntSet active = server.getActiveUsers(roomId);
+    int count = members.size() - active.size();
+    if (members.contains(sender) && !active.contains(sender)) {
+      count--;
+    }
+    return Math.max(0, count);
+  }
+
+  private long watermarkOf(String roomId, int user) {
+    IntLongMap room = watermarks.get(roomId);
+    return room != null ? room.get(user, SocketServer.SEQ_BASE) : SocketServer.SEQ_BASE;
+  }
+
+  /** 방 정리 시 읽음 위치를 저장용 줄로 추가 (read\tusername\tseq) */
+  void exportRoom(String roomId, List<String> lines) {
+    IntLongMap room = watermarks.get(roomId);
+    if (room != null) {
+      room.forEach((user, seq) -> lines.add("read\t" + server.users.nameOf(user) + "\t" + seq));
+    }
+  }
+
+  /** 저장된 줄에서 읽음 위치 복원 */
+  void importRoom(String roomId, List<String> lines) {
+    for (String line : lines) {
+      String[] fields = line.split("\t", 3);
+      if (fields.length == 3 && fields[0].equals("read")) {
+        try {
+          watermarksOf(roomId).putMax(server.users.intern(fields[1]), Long.parseLong(fields[2]));
+        } catch (NumberFormatException e) {
+          server.log("Skipped bad read position for " + roomId + ": " + line);
+        }
+      }
+    }
+  }
+
+  void dropRoom(String roomId) {
+    watermarks.remove(roomId);
+  }
+
+  private IntLongMap watermarksOf(String roomId) {
+    return watermarks.computeIfAbsent(roomId, k -> new IntLongMap());
+  }
+
+  private void flush() {
+    List<String> rooms;
+    List<String> receipts;
+    synchronized (this) {
+      rooms = new ArrayList<>(dirtyRooms);
+      receipts = new ArrayList<>(receiptRooms);
+      dirtyRooms.clear();
+      receiptRooms.clear();
+    }
+
+    for (String roomId : receipts) {
+      sendReceipts(roomId);
+    }
+
+    for (String roomId : rooms) {
+      IntSet members = server.getRoomMembers(roomId);
+      List<SocketServer.SocketClientHandler> online = server.getClients();
+      // 멤버와 접속자 중 적은 쪽을 순회
+      if (members.size() <= online.size()) {
+        for (int member : members.toArray()) {
+          send(roomId, member, server.handlerFor(server.users.nameOf(member)));
+        }
+      } else {
+        for (SocketServer.SocketClientHandler client : online) {
+          if (members.contains(client.getUserId())) {
+            send(roomId, client.getUserId(), client);
+          }
+        }
+      }
+    }
+  }
+
+  private void send(String roomId, int user, SocketServer.SocketClientHandler client) {
+    if (client == null)
+      return;
+    int count = unreadCount(roomId, user);
+    if (count > 0) {
+      client.sendMessage("UNREAD_UPDATE:" + roomId + ":" + count);
+    }
+  }
+
+  /** 방을 보고 있는 사용자에게 읽음 위치 분포 전송 (받을 사용자가 없으면 계산하지 않음) */
+  private void sendReceipts(String roomId) {
+    List<SocketServer.SocketClientHandler> viewers = new ArrayList<>();
+    for (int user : server.getActiveUsers(roomId).toArray()) {
+      SocketServer.SocketClientHandler client = server.handlerFor(server.users.nameOf(user));
+      if (client != null && client.supports(Protocol.CAP_RECEIPTS)) {
+        viewers.add(client);
+      }
+    }
+    if (viewers.isEmpty())
+      return;
+
+    String frame = readUpTo(roomId);
+    for (SocketServer.SocketClientHandler client : viewers) {
+      client.sendMessage(frame);
+    }
+  }
+
+  /**
+   * 멤버들의 읽음 위치를 seq별 인원으로 묶은 프레임
+   * 보고 있는 멤버와 head까지 읽은 멤버는 모든 메시지를 읽었으므로 생략하고,
+   * 최근 RECEIPT_WINDOW개보다 오래된 위치는 floor 하나로 합침
+   */
+  private String readUpTo(String roomId) {
+    long head = server.headSeq(roomId);
+    long floor = Math.max(SocketServer.SEQ_BASE, head - RECEIPT_WINDOW);
+
+    TreeMap<Long, Integer> positions = new TreeMap<>();
+    for (int member : server.getRoomMembers(roomId).toArray()) {
+      if (server.isActive(roomId, member))
+        continue;
+      long watermark = watermarkOf(roomId, member);
+      if (watermark < head) {
+        positions.merge(Math.max(watermark, floor), 1, Integer::sum);
+      }
+    }
+
+    StringBuilder sb = new StringBuilder("READ_UPTO:").append(roomId).append(':').append(floor).append(':');
+    boolean first = true;
+    for (Map.Entry<Long, Integer> position : positions.entrySet()) {
+      if (!first)
+        sb.append(',');
+      sb.append(position.getKey()).append('*').append(position.getValue());
+      first = false;
+    }
+    return sb.toString();
+  }
+}
@@ -0,0 +1,85 @@
+package network.dto;
+
+/**
+ * 게임 결과 프로토콜 (구조화된 점수)
+ * Format: GAME_SCORE:roomId:username:gameType:score:outcome
+ * (outcome: WIN, LOSE, DRAW)
+ */
+public class GameScoreMessage implements ProtocolMessage {
+  /** 게임 결과 */
+  public enum Outcome {
+    WIN("승리"), LOSE("패배"), DRAW("무승부");
+
+    private final String label;
+
+    Outcome(String label) {
+      this.label = label;
+    }
+
+    /** 채팅방 표시용 이름 */
+    public String getLabel() {
+      return label;
+    }
+  }
+
+  private String roomId;
+  private String username;
+  private String gameType;
+  private int score;
+  private Outcome outcome;
+
+  public GameScoreMessage(String roomId, String username, String gameType, int score, Outcome outcome) {
+    this.roomId = roomId;
+    this.username = username;
+    this.gameType = gameType;
+    this.score = score;
+    this.outcome = outcome;
+  }
+
+  public static GameScoreMessage parse(String message) {
+    String[] parts = message.split(":", 6);
+    if (parts.length != 6 || !parts[0].equals("GAME_SCORE"))
+      return null;
+    try {
+      return new GameScoreMessage(parts[1], parts[2], parts[3], Integer.parseInt(parts[4]),
+          Outcome.valueOf(parts[5]));
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  @Override
+  public String serialize() {
+    return "GAME_SCORE:" + roomId + ":" + username + ":" + gameType + ":" + score + ":" + outcome.name();
+  }
+
+  @Override
+  public MessageType getType() {
+    return MessageType.GAME_SCORE;
+  }
+
+  /** 채팅방에 표시할 결과 문구 (기존 자유 형식 GAME_RESULT와 같은 모양) */
+  public String toDisplayText() {
+    return username + "님 결과 - " + outcome.getLabel() + " (" + score + ")";
+  }
+
+  public String getRoomId() {
+    return roomId;
+  }
+
+  public String getUsername() {
+    return username;
+  }
+
+  public String getGameType() {
+    return gameType;
+  }
+
+  public int getScore() {
+    return score;
+  }
+
+  public Outcome getOutcome() {
+    return outcome;
+  }
+}
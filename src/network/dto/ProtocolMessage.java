@@ -17,6 +17,7 @@ public interface ProtocolMessage {
     USER_LIST,
     USER_JOINED,
     USER_LEFT,
-    ROOM_LIST
+    ROOM_LIST,
+    GAME_SCORE
   }
 }
@@ -0,0 +1,103 @@
+package network.dto;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 로그인 시 채팅방 목록 스냅샷 프로토콜 (최근 메시지 순)
+ * Format: ROOM_LIST:roomId|lastMessage|timestamp|unreadCount|memberCount,...
+ * (lastMessage는 URL 인코딩)
+ */
+public class RoomListMessage implements ProtocolMessage {
+  private List<Entry> rooms;
+
+  /** 채팅방 하나의 요약 정보 */
+  public static class Entry {
+    private String roomId;
+    private String lastMessage;
+    private long timestamp;
+    private int unreadCount;
+    private int memberCount;
+
+    public Entry(String roomId, String lastMessage, long timestamp, int unreadCount, int memberCount) {
+      this.roomId = roomId;
+      this.lastMessage = lastMessage;
+      this.timestamp = timestamp;
+      this.unreadCount = unreadCount;
+      this.memberCount = memberCount;
+    }
+
+    public String getRoomId() {
+      return roomId;
+    }
+
+    public String getLastMessage() {
+      return lastMessage;
+    }
+
+    public long getTimestamp() {
+      return timestamp;
+    }
+
+    public int getUnreadCount() {
+      return unreadCount;
+    }
+
+    public int getMemberCount() {
+      return memberCount;
+    }
+  }
+
+  public RoomListMessage(List<Entry> rooms) {
+    this.rooms = rooms;
+  }
+
+  public static RoomListMessage parse(String message) {
+    if (!message.startsWith("ROOM_LIST:"))
+      return null;
+    String body = message.substring(10);
+    List<Entry> rooms = new ArrayList<>();
+    if (!body.isEmpty()) {
+      for (String room : body.split(",")) {
+        String[] fields = room.split("\\|", -1);
+        if (fields.length != 5)
+          return null;
+        try {
+          rooms.add(new Entry(fields[0], URLDecoder.decode(fields[1], StandardCharsets.UTF_8),
+              Long.parseLong(fields[2]), Integer.parseInt(fields[3]), Integer.parseInt(fields[4])));
+        } catch (IllegalArgumentException e) {
+          return null;
+        }
+      }
+    }
+    return new RoomListMessage(rooms);
+  }
+
+  @Override
+  public String serialize() {
+    StringBuilder sb = new StringBuilder("ROOM_LIST:");
+    for (int i = 0; i < rooms.size(); i++) {
+      Entry room = rooms.get(i);
+      if (i > 0)
+        sb.append(',');
+      sb.append(room.roomId).append('|')
+          .append(URLEncoder.encode(room.lastMessage, StandardCharsets.UTF_8)).append('|')
+          .append(room.timestamp).append('|')
+          .append(room.unreadCount).append('|')
+          .append(room.memberCount);
+    }
+    return sb.toString();
+  }
+
+  @Override
+  public MessageType getType() {
+    return MessageType.ROOM_LIST;
+  }
+
+  public List<Entry> getRooms() {
+    return rooms;
+  }
+}
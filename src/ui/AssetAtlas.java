@@ -0,0 +1,123 @@
+package ui;
+
+import util.ClientLogger;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 이모티콘/게임 아이콘 공용 에셋 저장소
+ * 시작 시 클래스패스에서 모든 아이콘을 병렬로 한 번만 읽고,
+ * 화면별 표시 크기로 미리 축소한 아이콘을 모든 UI 컴포넌트에 제공
+ */
+public class AssetAtlas {
+  // 사용 가능한 이모티콘 목록
+  public static final String[] EMOTICONS = {
+      "sangsang_happy", "sangsang_sad", "sangsang_angry",
+      "sangsang_love", "sangsang_ok", "sangsang_hello"
+  };
+
+  // 게임 아이콘 목록 (파일 이름)
+  public static final String[] GAME_ICONS = { "space", "brick", "typing", "volley" };
+
+  // 표시 크기
+  public static final int POPUP_ICON_SIZE = 60; // 선택 팝업
+  public static final int CHAT_EMOTICON_SIZE = 100; // 채팅 말풍선 이모티콘
+  public static final int INVITE_ICON_SIZE = 50; // 게임 초대 카드
+
+  private static final int[] EMOTICON_SIZES = { POPUP_ICON_SIZE, CHAT_EMOTICON_SIZE };
+  private static final int[] GAME_ICON_SIZES = { POPUP_ICON_SIZE, INVITE_ICON_SIZE };
+
+  // "emoticons/name@size" -> 축소된 아이콘
+  private static final Map<String, ImageIcon> icons = new ConcurrentHashMap<>();
+  private static CompletableFuture<Void> loading;
+
+  /** 모든 아이콘을 백그라운드에서 병렬로 로딩 (여러 번 호출해도 한 번만 수행) */
+  public static synchronized CompletableFuture<Void> preload() {
+    if (loading != null)
+      return loading;
+
+    ExecutorService pool = Executors.newFixedThreadPool(
+        Math.max(2, Runtime.getRuntime().availableProcessors()), r -> {
+          Thread t = new Thread(r, "asset-loader");
+          t.setDaemon(true);
+          return t;
+        });
+
+    java.util.List<CompletableFuture<Void>> tasks = new java.util.ArrayList<>();
+    for (String name : EMOTICONS) {
+      tasks.add(CompletableFuture.runAsync(() -> load("emoticons", name, EMOTICON_SIZES), pool));
+    }
+    for (String name : GAME_ICONS) {
+      tasks.add(CompletableFuture.runAsync(() -> load("games", name, GAME_ICON_SIZES), pool));
+    }
+
+    loading = CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0]))
+        .whenComplete((result, error) -> {
+          pool.shutdown();
+          ClientLogger.ui("Asset atlas loaded: " + icons.size() + " icons");
+        });
+    return loading;
+  }
+
+  public static ImageIcon getEmoticon(String name, int size) {
+    return get("emoticons", name, size);
+  }
+
+  public static ImageIcon getGameIcon(String name, int size) {
+    return get("games", name, size);
+  }
+
+  private static ImageIcon get(String category, String name, int size) {
+    String key = category + "/" + name + "@" + size;
+    ImageIcon icon = icons.get(key);
+    if (icon != null)
+      return icon;
+
+    CompletableFuture<Void> loaded = preload();
+    if (!loaded.isDone()) {
+      // 로딩이 아직 끝나지 않았으면 (시작 직후에만 발생) EDT를 막지 않도록 같은 크기의 빈 자리를 돌려주고,
+      // 로딩이 끝나면 그 자리에 그림을 채워서 다시 그림
+      ImageIcon placeholder = new ImageIcon(new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB));
+      loaded.thenRun(() -> SwingUtilities.invokeLater(() -> {
+        ImageIcon real = icons.get(key);
+        if (real != null) {
+          placeholder.setImage(real.getImage());
+          for (Window window : Window.getWindows()) {
+            window.repaint();
+          }
+        }
+      }));
+      return placeholder;
+    }
+
+    icon = icons.get(key);
+    if (icon == null) {
+      // 알 수 없는 아이콘: 빈 자리 표시
+      icon = new ImageIcon(new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB));
+      icons.put(key, icon);
+    }
+    return icon;
+  }
+
+  private static void load(String category, String name, int[] sizes) {
+    String path = "/Assets/" + category + "/" + name + ".png";
+    java.net.URL url = AssetAtlas.class.getResource(path);
+    ImageIcon source = url != null ? new ImageIcon(url) : new ImageIcon("src" + path);
+    if (source.getIconWidth() <= 0) {
+      ClientLogger.error("Asset not found: " + path);
+      return;
+    }
+
+    for (int size : sizes) {
+      Image img = source.getImage().getScaledInstance(size, size, Image.SCALE_SMOOTH);
+      icons.put(category + "/" + name + "@" + size, new ImageIcon(img));
+    }
+  }
+}
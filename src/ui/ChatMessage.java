@@ -0,0 +1,128 @@
+package ui;
+
+import javax.swing.ImageIcon;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 채팅 메시지 데이터 클래스
+ * 텍스트, 이모티콘, 채팅 사진, 게임 초대를 하나의 형태로 표현
+ */
+class ChatMessage {
+  // 압축 저장 시 메시지 종류
+  private static final byte KIND_TEXT = 0;
+  private static final byte KIND_EMOJI = 1;
+  private static final byte KIND_PHOTO = 2;
+  private static final byte KIND_INVITE = 3;
+
+  String sender; // 발신자
+  String content; // 메시지 내용 (이모티콘은 이름, 게임 초대는 게임 타입)
+  ImageIcon image; // 이미지 (이모티콘 등 로컬 이미지인 경우)
+  String imageKey; // ImageCache 키 (채팅 사진인 경우)
+  boolean isMine; // 내 메시지 여부
+  boolean isImage; // 이미지 메시지 여부
+  boolean isGameInvite; // 게임 초대 여부
+  int unreadCount = 0; // 안읽은 수
+  long seq; // 서버 순번 (아직 모르면 0)
+  long timestamp; // 타임스탬프
+  ChatPage.BubbleLayout layout; // 렌더러 측정 결과 캐시
+
+  public ChatMessage(String sender, String content, boolean isMine) {
+    this.sender = sender;
+    this.content = content;
+    this.isMine = isMine;
+    this.isImage = false;
+    this.isGameInvite = false;
+    this.timestamp = System.currentTimeMillis();
+  }
+
+  /** 이미지 메시지 생성자 */
+  public ChatMessage(String sender, ImageIcon image, boolean isMine) {
+    this.sender = sender;
+    this.image = image;
+    this.isMine = isMine;
+    this.isImage = true;
+    this.isGameInvite = false;
+    this.timestamp = System.currentTimeMillis();
+  }
+
+  /** 게임 초대 메시지 생성자 */
+  public ChatMessage(String sender, String gameType, boolean isMine, boolean isGameInvite) {
+    this.sender = sender;
+    this.content = gameType; // 게임 타입 코드 저장
+    this.isMine = isMine;
+    this.isImage = false;
+    this.isGameInvite = true;
+    this.timestamp = System.currentTimeMillis();
+  }
+
+  /** 이모티콘 메시지 생성 (이름을 함께 보관해서 다시 불러올 수 있게 함) */
+  static ChatMessage ofEmoji(String sender, String emojiName, boolean isMine) {
+    ChatMessage msg = new ChatMessage(sender, AssetAtlas.getEmoticon(emojiName, AssetAtlas.CHAT_EMOTICON_SIZE), isMine);
+    msg.content = emojiName;
+    return msg;
+  }
+
+  /** 채팅 사진 메시지 생성 (비트맵 대신 캐시 키만 보관) */
+  static ChatMessage ofImageKey(String sender, String imageKey, boolean isMine) {
+    ChatMessage msg = new ChatMessage(sender, (ImageIcon) null, isMine);
+    msg.imageKey = imageKey;
+    return msg;
+  }
+
+  /** 압축 저장 (아이콘/측정 결과 등 다시 만들 수 있는 값은 제외) */
+  void writeTo(DataOutputStream out) throws IOException {
+    // 전송 중이라 아직 키가 없는 사진(이모티콘 이름도 없음)도 사진으로 저장
+    byte kind = isGameInvite ? KIND_INVITE
+        : !isImage ? KIND_TEXT : imageKey != null || content == null ? KIND_PHOTO : KIND_EMOJI;
+    out.writeByte(kind);
+    writeString(out, sender);
+    writeString(out, kind == KIND_PHOTO ? imageKey : content);
+    out.writeBoolean(isMine);
+    out.writeInt(unreadCount);
+    out.writeLong(seq);
+    out.writeLong(timestamp);
+  }
+
+  /** writeTo로 저장한 메시지 복원 */
+  static ChatMessage readFrom(DataInputStream in) throws IOException {
+    byte kind = in.readByte();
+    String sender = readString(in);
+    String value = readString(in);
+    boolean isMine = in.readBoolean();
+
+    ChatMessage msg;
+    switch (kind) {
+      case KIND_EMOJI:
+        msg = ofEmoji(sender, value, isMine);
+        break;
+      case KIND_PHOTO:
+        msg = ofImageKey(sender, value.isEmpty() ? null : value, isMine); // 빈 키는 전송 중이던 사진
+        break;
+      case KIND_INVITE:
+        msg = new ChatMessage(sender, value, isMine, true);
+        break;
+      default:
+        msg = new ChatMessage(sender, value, isMine);
+        break;
+    }
+    msg.unreadCount = in.readInt();
+    msg.seq = in.readLong();
+    msg.timestamp = in.readLong();
+    return msg;
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    byte[] bytes = (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    byte[] bytes = new byte[in.readInt()];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,155 @@
+package ui;
+
+import util.ClientLogger;
+
+import javax.swing.AbstractListModel;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * 채팅방 메시지 목록 모델
+ * 최근 메시지만 객체로 유지하고, 오래된 메시지는 묶음 단위로 압축 바이트로 내려 보관
+ * 사용자가 위로 스크롤하면 가장 최근 묶음부터 다시 불러옴
+ *
+ * 방마다 객체 메시지 수와 압축 보관 바이트에 상한이 있으며,
+ * 압축 보관 상한을 넘으면 가장 오래된 묶음부터 버림
+ */
+class ChatMessageModel extends AbstractListModel<ChatMessage> {
+  static final int CHUNK_SIZE = 50; // 압축/복원 단위 메시지 수
+  static final int DEFAULT_WINDOW_SIZE = 200; // 객체로 유지할 최근 메시지 수
+  static final int DEFAULT_SPILL_BUDGET_BYTES = 2 * 1024 * 1024; // 압축 보관 상한
+
+  private static int windowSize = DEFAULT_WINDOW_SIZE;
+  private static int spillBudgetBytes = DEFAULT_SPILL_BUDGET_BYTES;
+
+  private final List<ChatMessage> window = new ArrayList<>(); // 화면에 올라온 메시지
+  private final Deque<byte[]> spilled = new ArrayDeque<>(); // 압축 묶음 (마지막이 가장 최근)
+  private long spilledBytes = 0;
+  private int droppedMessages = 0; // 상한 초과로 버린 메시지 수
+  private final int maxWindow = windowSize;
+  private final int maxSpilled = spillBudgetBytes;
+
+  /** 방별 메모리 상한 설정 (이후 생성되는 모델에 적용) */
+  public static void setLimits(int maxWindowMessages, int maxSpilledBytes) {
+    windowSize = Math.max(CHUNK_SIZE, maxWindowMessages);
+    spillBudgetBytes = Math.max(0, maxSpilledBytes);
+  }
+
+  @Override
+  public int getSize() {
+    return window.size();
+  }
+
+  @Override
+  public ChatMessage getElementAt(int index) {
+    return window.get(index);
+  }
+
+  public void add(ChatMessage msg) {
+    window.add(msg);
+    int index = window.size() - 1;
+    fireIntervalAdded(this, index, index);
+
+    // 위쪽 기록을 보는 중이어도 두 배를 넘으면 강제로 내림
+    if (window.size() > maxWindow * 2) {
+      trim();
+    }
+  }
+
+  /** 메시지 내용이 바뀌어서 다시 측정해야 함 (이미 압축 보관된 메시지는 무시) */
+  public void update(ChatMessage msg) {
+    int index = window.lastIndexOf(msg);
+    if (index != -1) {
+      fireContentsChanged(this, index, index);
+    }
+  }
+
+  /** 최근 메시지 수가 상한을 넘으면 오래된 메시지를 압축 묶음으로 내림 (하단을 보고 있을 때 호출) */
+  public void trim() {
+    int excess = window.size() - maxWindow;
+    if (excess < CHUNK_SIZE)
+      return;
+
+    int count = excess - excess % CHUNK_SIZE;
+    for (int start = 0; start < count; start += CHUNK_SIZE) {
+      byte[] chunk = encode(window.subList(start, start + CHUNK_SIZE));
+      if (chunk != null) {
+        spilled.addLast(chunk);
+        spilledBytes += chunk.length;
+      }
+    }
+    window.subList(0, count).clear();
+    fireIntervalRemoved(this, 0, count - 1);
+
+    while (spilledBytes > maxSpilled && !spilled.isEmpty()) {
+      spilledBytes -= spilled.removeFirst().length;
+      droppedMessages += CHUNK_SIZE;
+    }
+    ClientLogger.ui("Chat model trimmed " + count + " messages (" + getStats() + ")");
+  }
+
+  public boolean hasOlder() {
+    return !spilled.isEmpty();
+  }
+
+  /**
+   * 가장 최근 압축 묶음을 목록 앞에 복원
+   *
+   * @return 앞에 추가된 메시지 수
+   */
+  public int loadOlder() {
+    byte[] chunk = spilled.pollLast();
+    if (chunk == null)
+      return 0;
+    spilledBytes -= chunk.length;
+
+    List<ChatMessage> older = decode(chunk);
+    if (older.isEmpty())
+      return 0;
+    window.addAll(0, older);
+    fireIntervalAdded(this, 0, older.size() - 1);
+    return older.size();
+  }
+
+  /** 모델 메모리 지표 문자열 */
+  public String getStats() {
+    return "window=" + window.size() + " spilledChunks=" + spilled.size()
+        + " spilled=" + (spilledBytes / 1024) + "KB dropped=" + droppedMessages;
+  }
+
+  private static byte[] encode(List<ChatMessage> messages) {
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(bytes);
+      out.writeInt(messages.size());
+      for (ChatMessage msg : messages) {
+        msg.writeTo(out);
+      }
+      out.flush();
+      return bytes.toByteArray();
+    } catch (IOException e) {
+      ClientLogger.error("Failed to spill chat messages", e);
+      return null;
+    }
+  }
+
+  private static List<ChatMessage> decode(byte[] chunk) {
+    List<ChatMessage> messages = new ArrayList<>();
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(chunk))) {
+      int count = in.readInt();
+      for (int i = 0; i < count; i++) {
+        messages.add(ChatMessage.readFrom(in));
+      }
+    } catch (IOException e) {
+      ClientLogger.error("Failed to restore chat messages", e);
+    }
+    return messages;
+  }
+}
@@ -18,8 +18,12 @@ import java.io.File;
  */
 public class ChatPage extends JPanel implements SocketClient.MessageListener {
   private ClientApp app; // 부모 앱 참조
-  private DefaultListModel<ChatMessage> listModel; // 메시지 목록 모델
+  private ChatMessageModel listModel; // 메시지 목록 모델 (최근 메시지만 유지)
   private JList<ChatMessage> messageList; // 메시지 표시 리스트
+  private boolean loadingOlder = false; // 이전 메시지 복원 후 스크롤 위치 보정 중
+  private boolean trimPending = false; // 위쪽 기록을 보는 동안 미뤄 둔 모델 정리 (하단으로 돌아오면 실행)
+  private JScrollBar verticalBar; // 메시지 목록 세로 스크롤바
+  private boolean scrollPending = false; // 하단 스크롤 예약됨 (그 사이 추가된 메시지도 하단으로 봄)
   private JTextField inputField; // 메시지 입력 필드
   private String otherUsername; // 상대방 또는 채팅방 이름
   private String roomId; // 채팅방 고유 ID
@@ -28,6 +32,9 @@ public class ChatPage extends JPanel implements SocketClient.MessageListener {
   private JLabel typingIndicatorLabel; // 입력중 표시 라벨
   private Timer typingTimer; // 입력 종료 감지 타이머
   private boolean isCurrentlyTyping = false; // 현재 입력중 여부
+  // 서버 순번을 기다리는 내 메시지 (보낸 순서)
+  private final java.util.ArrayDeque<ChatMessage> unackedMessages = new java.util.ArrayDeque<>();
+  private network.ReadReceipts readReceipts; // 마지막으로 받은 방 읽음 현황
 
   /** 생성자: 1:1 채팅용 (상대방 이름으로 roomId 자동 생성) */
   public ChatPage(ClientApp app, String otherUsername) {
@@ -99,13 +106,27 @@ public class ChatPage extends JPanel implements SocketClient.MessageListener {
     add(header, BorderLayout.NORTH);
 
     // Message List
-    listModel = new DefaultListModel<>();
+    listModel = new ChatMessageModel();
     messageList = new JList<>(listModel);
     messageList.setCellRenderer(new ChatBubbleRenderer());
     messageList.setBackground(KakaoColors.CHAT_BACKGROUND);
     messageList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
     messageList.setFixedCellHeight(-1); // 가변 높이 허용
 
+    // 목록 너비가 바뀌면 줄바꿈이 달라지므로 셀 높이를 다시 계산
+    messageList.addComponentListener(new java.awt.event.ComponentAdapter() {
+      private int lastWidth = -1;
+
+      @Override
+      public void componentResized(java.awt.event.ComponentEvent e) {
+        if (messageList.getWidth() != lastWidth) {
+          lastWidth = messageList.getWidth();
+          messageList.setFixedCellHeight(1);
+          messageList.setFixedCellHeight(-1);
+        }
+      }
+    });
+
     // 게임 초대 카드 클릭 리스너 (CellRenderer의 버튼은 이벤트를 받지 못함)
     messageList.addMouseListener(new MouseAdapter() {
       @Override
@@ -125,6 +146,34 @@ public class ChatPage extends JPanel implements SocketClient.MessageListener {
     scrollPane.setBorder(null);
     scrollPane.getVerticalScrollBar().setUnitIncrement(16);
 
+    // 맨 위까지 스크롤하면 압축 보관된 이전 메시지 복원 (보던 위치 유지),
+    // 하단으로 돌아오면 미뤄 둔 모델 정리 실행
+    verticalBar = scrollPane.getVerticalScrollBar();
+    verticalBar.addAdjustmentListener(e -> {
+      if (trimPending && !e.getValueIsAdjusting() && isAtBottom()) {
+        trimPending = false;
+        listModel.trim();
+        return;
+      }
+      if (e.getValueIsAdjusting() || loadingOlder || verticalBar.getValue() != verticalBar.getMinimum()
+          || !listModel.hasOlder())
+        return;
+      int added = listModel.loadOlder();
+      if (added > 0) {
+        for (int i = 0; i < added; i++) {
+          applyReceipts(listModel.getElementAt(i));
+        }
+        loadingOlder = true;
+        SwingUtilities.invokeLater(() -> {
+          Rectangle bounds = messageList.getCellBounds(0, added - 1);
+          if (bounds != null) {
+            verticalBar.setValue(verticalBar.getValue() + bounds.height);
+          }
+          loadingOlder = false;
+        });
+      }
+    });
+
     // 입력중 인디케이터 패널 (scroll pane과 input panel 사이에 위치)
     typingIndicatorLabel = new JLabel("");
     typingIndicatorLabel.setFont(new Font("SansSerif", Font.ITALIC, 12));
@@ -272,19 +321,51 @@ public class ChatPage extends JPanel implements SocketClient.MessageListener {
 
     add(inputPanel, BorderLayout.SOUTH);
 
-    // 메시지 리스너 설정 (room join 전에 설정 - 히스토리가 즉시 전송됨)
+    // 이 방의 수신 이벤트 구독 (처음 여는 방만 입장/히스토리 요청, 그 외에는 보관된 이벤트로 복원)
+    // (ChatScrollBenchmark처럼 앱 없이 만든 화면은 구독하지 않음)
+    if (app != null && app.getSocketClient() != null) {
+      // 송신 큐에 넣기만 하므로 EDT에서 바로 호출해도 블로킹되지 않음
+      app.getSocketClient().openRoom(roomId, this);
+    }
+  }
+
+  public String getRoomId() {
+    return roomId;
+  }
+
+  /** 캐시된 페이지를 다시 보여줄 때 호출 (모델/스크롤 위치는 그대로 유지) */
+  void onShown() {
     if (app.getSocketClient() != null) {
-      app.getSocketClient().setMessageListener(this);
+      app.getSocketClient().resumeRoom(roomId);
+    }
+  }
+
+  /** 다른 화면으로 이동해서 가려질 때 호출 (이후 메시지는 안읽음으로 집계) */
+  void onHidden() {
+    if (app.getSocketClient() != null) {
+      app.getSocketClient().leaveRoom(roomId);
+    }
+    stopTyping();
+  }
+
+  /** 캐시에서 제거될 때 호출 (이미 가려진 페이지만 제거됨) */
+  void dispose() {
+    if (app.getSocketClient() != null) {
+      app.getSocketClient().closeRoom(roomId, this);
+    }
+    stopTyping();
+  }
 
-      // UI 문제 방지를 위해 백그라운드 스레드에서 네트워크 작업 수행
-      new Thread(() -> {
-        app.getSocketClient().joinRoom(roomId);
-      }).start();
+  private void stopTyping() {
+    typingTimer.stop();
+    if (isCurrentlyTyping && app.getSocketClient() != null) {
+      isCurrentlyTyping = false;
+      app.getSocketClient().sendTypingStatus(roomId, false);
     }
   }
 
   /** 두 사용자 이름에서 방 ID 생성 (알파벳 순으로 정렬) */
-  private String generateRoomId(String user1, String user2) {
+  static String generateRoomId(String user1, String user2) {
     if (user1.compareTo(user2) < 0) {
       return user1 + "_" + user2;
     } else {
@@ -307,11 +388,8 @@ public class ChatPage extends JPanel implements SocketClient.MessageListener {
 
       // 내 메시지 목록에 추가
       ChatMessage msg = new ChatMessage(app.getSocketClient().getUsername(), text, true);
-      listModel.addElement(msg);
+      appendSent(msg);
       inputField.setText("");
-
-      // 하단으로 스크롤
-      messageList.ensureIndexIsVisible(listModel.getSize() - 1);
     }
   }
 
@@ -324,31 +402,74 @@ public class ChatPage extends JPanel implements SocketClient.MessageListener {
       if (app.getSocketClient() != null) {
         app.getSocketClient().sendRoomImage(roomId, selectedFile);
 
-        // 즉시 표시 (스케일링 최적화)
-        new Thread(() -> {
-          try {
-            ImageIcon icon = new ImageIcon(selectedFile.getAbsolutePath());
-            Image img = icon.getImage();
-            // EDT 외부에서 스케일링
-            Image resized = img.getScaledInstance(200, -1, Image.SCALE_SMOOTH);
-            ImageIcon resizedIcon = new ImageIcon(resized);
-
-            SwingUtilities.invokeLater(() -> {
-              ChatMessage msg = new ChatMessage(app.getSocketClient().getUsername(), resizedIcon, true);
-              listModel.addElement(msg);
-              messageList.ensureIndexIsVisible(listModel.getSize() - 1);
-            });
-          } catch (Exception ex) {
-            ex.printStackTrace();
-          }
-        }).start();
+        // 보낸 순서대로 말풍선을 바로 추가해서 ACK 순서와 맞추고,
+        // 파일 읽기가 끝나면(캐시의 디코더 스레드) 사진 키를 채워서 다시 측정
+        ChatMessage msg = ChatMessage.ofImageKey(app.getSocketClient().getUsername(), null, true);
+        appendSent(msg);
+        util.ImageCache.load(selectedFile, imageKey -> {
+          msg.imageKey = imageKey;
+          msg.layout = null;
+          listModel.update(msg);
+        });
       }
     }
   }
 
+  /** 보관된 이벤트로 복원된 내 메시지 구분용 */
+  private boolean isMe(String sender) {
+    return app.getSocketClient() != null && sender.equals(app.getSocketClient().getUsername());
+  }
+
+  /**
+   * 메시지 추가 (오래된 메시지는 모델이 압축 보관)
+   * 하단을 보고 있을 때만 정리하고 따라 내려감, 위쪽 기록을 보는 중이면 보던 위치를 유지하고 정리는 미룸
+   */
+  private void appendMessage(ChatMessage msg) {
+    boolean atBottom = isAtBottom();
+    listModel.add(msg);
+    if (atBottom) {
+      listModel.trim();
+      scrollToBottom();
+    } else {
+      trimPending = true;
+    }
+  }
+
+  /** 내가 보낸 메시지 추가 (서버 순번을 받으면 읽음 현황 반영, 항상 하단으로 스크롤) */
+  private void appendSent(ChatMessage msg) {
+    unackedMessages.add(msg);
+    appendMessage(msg);
+    scrollToBottom();
+  }
+
+  /** 스크롤바가 하단에 있는지 (목록이 화면보다 짧은 경우, 하단 스크롤이 예약된 경우 포함) */
+  private boolean isAtBottom() {
+    return scrollPending || verticalBar.getValue() + verticalBar.getVisibleAmount() >= verticalBar.getMaximum();
+  }
+
+  /** 서버 순번이 있는 수신 메시지 추가 */
+  private void appendReceived(ChatMessage msg, long seq) {
+    msg.seq = seq;
+    applyReceipts(msg);
+    appendMessage(msg);
+  }
+
+  /** 마지막 읽음 현황으로 말풍선 안읽은 수 갱신 (바뀌었으면 true) */
+  private boolean applyReceipts(ChatMessage msg) {
+    if (readReceipts == null || msg.seq == 0)
+      return false;
+    int count = readReceipts.unreadCount(msg.seq);
+    if (count < 0 || count == msg.unreadCount)
+      return false;
+    msg.unreadCount = count;
+    return true;
+  }
+
   /** 하단으로 스크롤 */
   private void scrollToBottom() {
+    scrollPending = true;
     SwingUtilities.invokeLater(() -> {
+      scrollPending = false;
       int lastIndex = listModel.getSize() - 1;
       if (lastIndex >= 0) {
         messageList.ensureIndexIsVisible(lastIndex);
@@ -357,7 +478,7 @@ public class ChatPage extends JPanel implements SocketClient.MessageListener {
   }
 
   @Override
-  public void onMessageReceived(String message) {
+  public void onMessageReceived(String roomId, long seq, String message) {
     if (message.startsWith("MSG:")) {
       int firstColon = message.indexOf(':');
       int secondColon = message.indexOf(':', firstColon + 1);
@@ -374,13 +495,9 @@ public class ChatPage extends JPanel implements SocketClient.MessageListener {
         } catch (NumberFormatException e) {
         }
 
-        int finalUnread = unread;
-        SwingUtilities.invokeLater(() -> {
-          ChatMessage msg = new ChatMessage(sender, content, false);
-          msg.unreadCount = finalUnread;
-          listModel.addElement(msg);
-          scrollToBottom();
-        });
+        ChatMessage msg = new ChatMessage(sender, content, isMe(sender));
+        msg.unreadCount = unread;
+        appendReceived(msg, seq);
       }
     } else if (message.startsWith("GAME_RESULT:")) {
       // 형식: GAME_RESULT:roomId:GAME_SYSTEM:scoreMsg
@@ -389,27 +506,15 @@ public class ChatPage extends JPanel implements SocketClient.MessageListener {
         String sender = parts[2];
         String content = parts[3];
         // 시스템 메시지로 표시
-        SwingUtilities.invokeLater(() -> {
-          listModel.addElement(new ChatMessage(sender, "🎮 " + content, false));
-          scrollToBottom();
-        });
+        appendMessage(new ChatMessage(sender, "🎮 " + content, false));
       }
     }
   }
 
   @Override
-  public void onImageReceived(String sender, ImageIcon image) {
-    new Thread(() -> {
-      // EDT 외부에서 리사이즈
-      Image img = image.getImage();
-      Image newImg = img.getScaledInstance(200, -1, Image.SCALE_SMOOTH);
-      ImageIcon resizedIcon = new ImageIcon(newImg);
-
-      SwingUtilities.invokeLater(() -> {
-        listModel.addElement(new ChatMessage(sender, resizedIcon, false));
-        scrollToBottom();
-      });
-    }).start();
+  public void onImageReceived(String roomId, long seq, String sender, String imageKey) {
+    // 압축 원본만 캐시에 있고 비트맵은 말풍선이 화면에 보일 때 디코딩됨
+    appendReceived(ChatMessage.ofImageKey(sender, imageKey, isMe(sender)), seq);
   }
 
   /** 이모티콘 팝업 표시 */
@@ -418,17 +523,8 @@ public class ChatPage extends JPanel implements SocketClient.MessageListener {
       if (app.getSocketClient() != null) {
         app.getSocketClient().sendRoomEmoji(roomId, emojiName);
 
-        // 로컬 목록에 추가 (EDT 블로킹 방지를 위해 비동기 이미지 로딩)
-        new Thread(() -> {
-          ImageIcon icon = new ImageIcon("src/assets/emoticons/" + emojiName + ".png");
-          Image img = icon.getImage().getScaledInstance(100, 100, Image.SCALE_SMOOTH);
-          ImageIcon scaledIcon = new ImageIcon(img);
-          SwingUtilities.invokeLater(() -> {
-            ChatMessage msg = new ChatMessage(app.getSocketClient().getUsername(), scaledIcon, true);
-            listModel.addElement(msg);
-            scrollToBottom();
-          });
-        }).start();
+        // 로컬 목록에 추가 (미리 축소된 공용 아이콘 사용)
+        appendSent(ChatMessage.ofEmoji(app.getSocketClient().getUsername(), emojiName, true));
       }
     });
     popup.show(invoker, 0, -200);
@@ -442,8 +538,7 @@ public class ChatPage extends JPanel implements SocketClient.MessageListener {
 
         // 로컬 목록에 추가
         ChatMessage msg = new ChatMessage(app.getSocketClient().getUsername(), gameType, true, true);
-        listModel.addElement(msg);
-        scrollToBottom();
+        appendSent(msg);
       }
     });
     popup.show(invoker, 0, -220);
@@ -451,92 +546,103 @@ public class ChatPage extends JPanel implements SocketClient.MessageListener {
 
   /** 이모지 수신 콜백 */
   @Override
-  public void onEmojiReceived(String sender, String emojiName) {
-    // EDT 블로킹 방지를 위해 이미지 로딩 및 스케일링
-    new Thread(() -> {
-      ImageIcon icon = new ImageIcon("src/assets/emoticons/" + emojiName + ".png");
-      Image img = icon.getImage().getScaledInstance(100, 100, Image.SCALE_SMOOTH);
-      ImageIcon scaledIcon = new ImageIcon(img);
-      SwingUtilities.invokeLater(() -> {
-        listModel.addElement(new ChatMessage(sender, scaledIcon, false));
-        scrollToBottom();
-      });
-    }).start();
+  public void onEmojiReceived(String roomId, long seq, String sender, String emojiName) {
+    // 미리 축소된 공용 아이콘 사용 (디스크 I/O 및 스케일링 없음)
+    appendReceived(ChatMessage.ofEmoji(sender, emojiName, isMe(sender)), seq);
   }
 
   @Override
-  public void onGameInviteReceived(String sender, String gameType) {
-    SwingUtilities.invokeLater(() -> {
-      listModel.addElement(new ChatMessage(sender, gameType, false, true));
-      scrollToBottom();
-    });
+  public void onGameInviteReceived(String roomId, long seq, String sender, String gameType) {
+    appendReceived(new ChatMessage(sender, gameType, isMe(sender), true), seq);
   }
 
   @Override
-  public void onTypingStatusReceived(String username, boolean isTyping) {
-    SwingUtilities.invokeLater(() -> {
-      if (isTyping) {
-        typingIndicatorLabel.setText(username + "님이 입력중...");
-        typingIndicatorLabel.setVisible(true);
-      } else {
-        typingIndicatorLabel.setVisible(false);
+  public void onMessageAcked(String roomId, long seq) {
+    ChatMessage msg = unackedMessages.poll();
+    if (msg != null && seq != 0) {
+      msg.seq = seq;
+      if (applyReceipts(msg)) {
+        messageList.repaint();
       }
-    });
-  }
-
-  @Override
-  public void addNotify() {
-    super.addNotify();
-    if (app.getSocketClient() != null) {
-      app.getSocketClient().setMessageListener(this);
     }
   }
 
-  /** 메시지 데이터 클래스 */
-  private static class ChatMessage {
-    String sender; // 발신자
-    String content; // 메시지 내용
-    ImageIcon image; // 이미지 (이미지 메시지인 경우)
-    boolean isMine; // 내 메시지 여부
-    boolean isImage; // 이미지 메시지 여부
-    boolean isGameInvite; // 게임 초대 여부
-    int unreadCount = 0; // 안읽은 수
-    long timestamp; // 타임스탬프
-
-    public ChatMessage(String sender, String content, boolean isMine) {
-      this.sender = sender;
-      this.content = content;
-      this.isMine = isMine;
-      this.isImage = false;
-      this.isGameInvite = false;
-      this.timestamp = System.currentTimeMillis();
+  /** 읽음 현황 수신: 모델에 올라온 말풍선의 안읽은 수만 제자리에서 갱신 (크기 변화 없음) */
+  @Override
+  public void onReadReceiptsReceived(String roomId, network.ReadReceipts receipts) {
+    readReceipts = receipts;
+    boolean changed = false;
+    for (int i = 0; i < listModel.getSize(); i++) {
+      changed |= applyReceipts(listModel.getElementAt(i));
     }
-
-    /** 이미지 메시지 생성자 */
-    public ChatMessage(String sender, ImageIcon image, boolean isMine) {
-      this.sender = sender;
-      this.image = image;
-      this.isMine = isMine;
-      this.isImage = true;
-      this.isGameInvite = false;
-      this.timestamp = System.currentTimeMillis();
+    if (changed) {
+      messageList.repaint();
     }
+  }
 
-    /** 게임 초대 메시지 생성자 */
-    public ChatMessage(String sender, String gameType, boolean isMine, boolean isGameInvite) {
-      this.sender = sender;
-      this.content = gameType; // 게임 타입 코드 저장
-      this.isMine = isMine;
-      this.isImage = false;
-      this.isGameInvite = true;
-      this.timestamp = System.currentTimeMillis();
+  @Override
+  public void onTypingUsersReceived(String roomId, java.util.List<String> usernames) {
+    if (usernames.isEmpty()) {
+      typingIndicatorLabel.setVisible(false);
+    } else if (usernames.size() == 1) {
+      typingIndicatorLabel.setText(usernames.get(0) + "님이 입력중...");
+      typingIndicatorLabel.setVisible(true);
+    } else {
+      typingIndicatorLabel.setText(usernames.get(0) + "님 외 " + (usernames.size() - 1) + "명이 입력중...");
+      typingIndicatorLabel.setVisible(true);
     }
   }
 
-  private final java.text.SimpleDateFormat timeFormat = new java.text.SimpleDateFormat("HH:mm");
+  /** 말풍선 측정 결과 (줄바꿈된 텍스트, 크기) */
+  static class BubbleLayout {
+    int maxTextWidth; // 계산 기준 텍스트 최대 너비
+    String[] lines; // 줄바꿈된 텍스트
+    int bubbleWidth, bubbleHeight; // 말풍선 크기
+    int cellWidth, cellHeight; // 셀 전체 크기
+    String timeText; // 표시 시간
+    String gameName; // 게임 초대 이름
+    ImageIcon gameIcon; // 게임 초대 아이콘
+    int unreadCount = -1; // unreadText 기준 값
+    String unreadText; // 안읽은 수 표시 문자열
+  }
 
-  /** 채팅 버블 커스텀 렌더러 */
-  private class ChatBubbleRenderer extends JPanel implements ListCellRenderer<ChatMessage> {
+  /** 채팅 버블 커스텀 렌더러 (컴포넌트를 만들지 않고 하나의 컴포넌트에 직접 그림) */
+  private class ChatBubbleRenderer extends JComponent implements ListCellRenderer<ChatMessage> {
+    // 셀 여백 / 크기
+    private static final int CELL_PAD_V = 4;
+    private static final int CELL_PAD_H = 12;
+    private static final int PROFILE_SIZE = 38;
+    private static final int PROFILE_GAP = 8;
+    private static final int NAME_GAP = 4;
+    private static final int BUBBLE_PAD_V = 10;
+    private static final int BUBBLE_PAD_H = 14;
+    private static final int INVITE_PAD = 10;
+    private static final int INVITE_ICON_GAP = 10;
+    private static final int INVITE_BUTTON_HEIGHT = 28;
+    private static final int MAX_TEXT_WIDTH = 250;
+    private static final int MIN_TEXT_WIDTH = 80;
+    private static final int TIME_RESERVE = 40; // 시간/안읽음 표시 자리
+
+    // 공유 폰트 / 색상
+    private static final Font TEXT_FONT = new Font("SansSerif", Font.PLAIN, 14);
+    private static final Font NAME_FONT = new Font("SansSerif", Font.PLAIN, 12);
+    private static final Font TIME_FONT = new Font("SansSerif", Font.PLAIN, 10);
+    private static final Font UNREAD_FONT = new Font("SansSerif", Font.BOLD, 10);
+    private static final Font INVITE_TITLE_FONT = new Font("SansSerif", Font.BOLD, 12);
+    private static final Color TIME_COLOR = new Color(130, 130, 130);
+    private static final Color UNREAD_COLOR = new Color(255, 200, 0);
+    private static final Color BUBBLE_BORDER = new Color(0, 0, 0, 20);
+    private static final Color IMAGE_PLACEHOLDER = new Color(0, 0, 0, 20);
+    private static final String INVITE_TITLE = "초대장이 도착했습니다!";
+    private static final String INVITE_BUTTON = "게임하기";
+
+    private final java.text.SimpleDateFormat timeFormat = new java.text.SimpleDateFormat("HH:mm");
+    private final java.util.Date timeDate = new java.util.Date();
+    private final Dimension preferredSize = new Dimension();
+    private final Runnable repaintList = () -> messageList.repaint();
+
+    private ChatMessage value; // 현재 그릴 메시지
+    private int maxTextWidth = MAX_TEXT_WIDTH; // 현재 목록 너비 기준 텍스트 최대 너비
 
     public ChatBubbleRenderer() {
       setOpaque(true);
@@ -546,251 +652,301 @@ public class ChatPage extends JPanel implements SocketClient.MessageListener {
     @Override
     public Component getListCellRendererComponent(JList<? extends ChatMessage> list, ChatMessage value, int index,
         boolean isSelected, boolean cellHasFocus) {
+      this.value = value;
+      int listWidth = list.getWidth();
+      if (listWidth > 0) {
+        int reserved = CELL_PAD_H * 2 + PROFILE_SIZE + PROFILE_GAP + BUBBLE_PAD_H * 2 + TIME_RESERVE;
+        maxTextWidth = Math.max(MIN_TEXT_WIDTH, Math.min(MAX_TEXT_WIDTH, listWidth - reserved));
+      }
+      BubbleLayout layout = layoutOf(value);
+      preferredSize.setSize(layout.cellWidth, layout.cellHeight);
+      return this;
+    }
 
-      removeAll();
-      setLayout(new BorderLayout());
-      setBorder(BorderFactory.createEmptyBorder(4, 12, 4, 12));
+    @Override
+    public Dimension getPreferredSize() {
+      return preferredSize;
+    }
 
-      if (value.isMine) {
-        // My message (right-aligned, yellow)
-        JPanel container = new JPanel();
-        container.setLayout(new BoxLayout(container, BoxLayout.X_AXIS));
-        container.setOpaque(false);
-        container.add(Box.createHorizontalGlue());
-
-        // Timestamp (left of bubble)
-        JLabel timeLabel = new JLabel(timeFormat.format(new java.util.Date(value.timestamp)));
-        timeLabel.setFont(new Font("SansSerif", Font.PLAIN, 10));
-        timeLabel.setForeground(new Color(130, 130, 130));
-        timeLabel.setBorder(BorderFactory.createEmptyBorder(0, 0, 2, 6));
-        timeLabel.setAlignmentY(Component.BOTTOM_ALIGNMENT);
-
-        // Bubble
-        JPanel bubble = createBubble(value, true);
-        bubble.setAlignmentY(Component.BOTTOM_ALIGNMENT);
-
-        // Unread Count (Between bubble and time)
-        if (value.unreadCount > 0) {
-          JLabel unreadLabel = new JLabel(String.valueOf(value.unreadCount));
-          unreadLabel.setFont(new Font("SansSerif", Font.BOLD, 10));
-          unreadLabel.setForeground(new Color(255, 200, 0)); // Yellow/Orange
-          unreadLabel.setBorder(BorderFactory.createEmptyBorder(0, 0, 2, 4));
-          unreadLabel.setAlignmentY(Component.BOTTOM_ALIGNMENT);
-          container.add(unreadLabel);
-        }
+    /** 메시지별 측정 결과 (목록 너비가 바뀐 경우에만 다시 계산) */
+    private BubbleLayout layoutOf(ChatMessage msg) {
+      BubbleLayout layout = msg.layout;
+      if (layout != null && layout.maxTextWidth == maxTextWidth)
+        return layout;
+      if (layout == null) {
+        layout = new BubbleLayout();
+        msg.layout = layout;
+      }
+      layout.maxTextWidth = maxTextWidth;
 
-        container.add(timeLabel);
-        container.add(bubble);
-        add(container, BorderLayout.EAST);
+      if (layout.timeText == null) {
+        timeDate.setTime(msg.timestamp);
+        layout.timeText = timeFormat.format(timeDate);
+      }
 
+      if (msg.isGameInvite) {
+        layout.gameName = gameNameOf(msg.content);
+        layout.gameIcon = AssetAtlas.getGameIcon(gameIconOf(msg.content), AssetAtlas.INVITE_ICON_SIZE);
+        FontMetrics title = getFontMetrics(INVITE_TITLE_FONT);
+        FontMetrics name = getFontMetrics(TEXT_FONT);
+        int cardWidth = Math.max(title.stringWidth(INVITE_TITLE),
+            INVITE_ICON_GAP + AssetAtlas.INVITE_ICON_SIZE + INVITE_ICON_GAP + name.stringWidth(layout.gameName));
+        layout.bubbleWidth = cardWidth + INVITE_PAD * 2;
+        layout.bubbleHeight = INVITE_PAD * 2 + title.getHeight() + 5 + AssetAtlas.INVITE_ICON_SIZE + 5
+            + INVITE_BUTTON_HEIGHT;
+      } else if (msg.isImage) {
+        int w, h;
+        if (msg.imageKey != null || msg.image == null) {
+          // 전송 중이라 아직 키가 없는 사진은 기본 크기
+          Dimension size = util.ImageCache.getScaledSize(msg.imageKey);
+          w = size.width;
+          h = size.height;
+        } else {
+          w = msg.image.getIconWidth();
+          h = msg.image.getIconHeight();
+        }
+        layout.bubbleWidth = w + BUBBLE_PAD_H * 2;
+        layout.bubbleHeight = h + BUBBLE_PAD_V * 2;
       } else {
-        // Other's message (left-aligned, white)
-        JPanel container = new JPanel(new BorderLayout(8, 4));
-        container.setOpaque(false);
-
-        // Profile icon
-        JPanel profileIcon = createProfileIcon();
-
-        // Content panel
-        JPanel contentPanel = new JPanel();
-        contentPanel.setLayout(new BoxLayout(contentPanel, BoxLayout.Y_AXIS));
-        contentPanel.setOpaque(false);
-
-        // Name
-        JLabel nameLabel = new JLabel(value.sender);
-        nameLabel.setFont(new Font("SansSerif", Font.PLAIN, 12));
-        nameLabel.setForeground(KakaoColors.TEXT_PRIMARY);
-        nameLabel.setBorder(BorderFactory.createEmptyBorder(0, 0, 4, 0));
-        nameLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
-
-        // Bubble + Time container
-        JPanel bubbleTimePanel = new JPanel();
-        bubbleTimePanel.setLayout(new BoxLayout(bubbleTimePanel, BoxLayout.X_AXIS));
-        bubbleTimePanel.setOpaque(false);
-        bubbleTimePanel.setAlignmentX(Component.LEFT_ALIGNMENT);
-
-        JPanel bubble = createBubble(value, false);
-        bubble.setAlignmentY(Component.BOTTOM_ALIGNMENT);
-
-        JLabel timeLabel = new JLabel(timeFormat.format(new java.util.Date(value.timestamp)));
-        timeLabel.setFont(new Font("SansSerif", Font.PLAIN, 10));
-        timeLabel.setForeground(new Color(130, 130, 130));
-        timeLabel.setBorder(BorderFactory.createEmptyBorder(0, 6, 2, 0));
-        timeLabel.setAlignmentY(Component.BOTTOM_ALIGNMENT);
-
-        bubbleTimePanel.add(bubble);
-
-        // Unread Count for others (next to bubble)
-        if (value.unreadCount > 0) {
-          JLabel unreadLabel = new JLabel(String.valueOf(value.unreadCount));
-          unreadLabel.setFont(new Font("SansSerif", Font.BOLD, 10));
-          unreadLabel.setForeground(new Color(255, 200, 0)); // Yellow/Orange
-          unreadLabel.setBorder(BorderFactory.createEmptyBorder(0, 4, 2, 0));
-          unreadLabel.setAlignmentY(Component.BOTTOM_ALIGNMENT);
-          bubbleTimePanel.add(unreadLabel);
+        FontMetrics fm = getFontMetrics(TEXT_FONT);
+        layout.lines = wrapText(msg.content, fm, maxTextWidth);
+        int textWidth = 0;
+        for (String line : layout.lines) {
+          textWidth = Math.max(textWidth, fm.stringWidth(line));
         }
-
-        bubbleTimePanel.add(timeLabel);
-        bubbleTimePanel.add(Box.createHorizontalGlue());
-
-        contentPanel.add(nameLabel);
-        contentPanel.add(bubbleTimePanel);
-
-        container.add(profileIcon, BorderLayout.WEST);
-        container.add(contentPanel, BorderLayout.CENTER);
-        add(container, BorderLayout.WEST);
+        layout.bubbleWidth = textWidth + BUBBLE_PAD_H * 2;
+        layout.bubbleHeight = layout.lines.length * fm.getHeight() + BUBBLE_PAD_V * 2;
       }
 
-      return this;
+      int contentHeight = layout.bubbleHeight;
+      int contentWidth = layout.bubbleWidth + TIME_RESERVE;
+      if (!msg.isMine) {
+        contentHeight = Math.max(PROFILE_SIZE, getFontMetrics(NAME_FONT).getHeight() + NAME_GAP + contentHeight);
+        contentWidth += PROFILE_SIZE + PROFILE_GAP;
+      }
+      layout.cellWidth = contentWidth + CELL_PAD_H * 2;
+      layout.cellHeight = contentHeight + CELL_PAD_V * 2;
+      return layout;
     }
 
-    private JPanel createBubble(ChatMessage msg, boolean isMine) {
-      JPanel bubble = new JPanel(new BorderLayout()) {
-        @Override
-        protected void paintComponent(Graphics g) {
-          Graphics2D g2 = (Graphics2D) g.create();
-          g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-          // Background
-          if (msg.isGameInvite) {
-            g2.setColor(Color.WHITE); // Game invites are always white cards
-          } else {
-            g2.setColor(isMine ? KakaoColors.MY_BUBBLE : KakaoColors.OTHER_BUBBLE);
-          }
+    @Override
+    protected void paintComponent(Graphics g) {
+      g.setColor(getBackground());
+      g.fillRect(0, 0, getWidth(), getHeight());
+      if (value == null)
+        return;
 
-          g2.fillRoundRect(0, 0, getWidth(), getHeight(), 18, 18);
+      Graphics2D g2 = (Graphics2D) g;
+      g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+      g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
 
-          // Subtle shadow/border
-          g2.setColor(new Color(0, 0, 0, 20));
-          g2.drawRoundRect(0, 0, getWidth() - 1, getHeight() - 1, 18, 18);
+      BubbleLayout layout = layoutOf(value);
+      int bottom = getHeight() - CELL_PAD_V;
+      int bubbleX;
+      int bubbleY = bottom - layout.bubbleHeight;
 
-          g2.dispose();
-          super.paintComponent(g);
+      if (value.isMine) {
+        // 내 메시지: 오른쪽 정렬, [안읽음][시간][버블]
+        bubbleX = getWidth() - CELL_PAD_H - layout.bubbleWidth;
+        int x = bubbleX - 6;
+        x = paintFooterText(g2, layout.timeText, TIME_FONT, TIME_COLOR, x, bottom, true) - 4;
+        if (value.unreadCount > 0) {
+          paintFooterText(g2, unreadText(layout, value.unreadCount), UNREAD_FONT, UNREAD_COLOR, x, bottom, true);
         }
-      };
-
-      bubble.setOpaque(false);
-
-      if (msg.isGameInvite) {
-        bubble.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
-
-        // Game Invite UI
-        JPanel card = new JPanel(new BorderLayout(10, 5));
-        card.setOpaque(false);
+      } else {
+        // 상대 메시지: 프로필, 이름, [버블][안읽음][시간]
+        paintProfileIcon(g2, CELL_PAD_H, CELL_PAD_V);
+        bubbleX = CELL_PAD_H + PROFILE_SIZE + PROFILE_GAP;
 
-        String gameType = msg.content;
-        String gameName = "알 수 없는 게임";
-        String iconName = "space";
+        g2.setFont(NAME_FONT);
+        g2.setColor(KakaoColors.TEXT_PRIMARY);
+        g2.drawString(value.sender, bubbleX, CELL_PAD_V + g2.getFontMetrics().getAscent());
 
-        switch (gameType) {
-          case "SPACE":
-            gameName = "슈팅 게임";
-            iconName = "space";
-            break;
-          case "BRICK":
-            gameName = "벽돌깨기";
-            iconName = "brick";
-            break;
-          case "TYPING":
-            gameName = "타이핑 게임";
-            iconName = "typing";
-            break;
-          case "VOLLEY":
-            gameName = "배구 게임";
-            iconName = "volley";
-            break;
+        int x = bubbleX + layout.bubbleWidth;
+        if (value.unreadCount > 0) {
+          x = paintFooterText(g2, unreadText(layout, value.unreadCount), UNREAD_FONT, UNREAD_COLOR, x + 4, bottom,
+              false);
         }
+        paintFooterText(g2, layout.timeText, TIME_FONT, TIME_COLOR, x + 6, bottom, false);
+      }
 
-        // Header
-        JLabel titleLabel = new JLabel("초대장이 도착했습니다!");
-        titleLabel.setFont(new Font("SansSerif", Font.BOLD, 12));
-        titleLabel.setForeground(KakaoColors.TEXT_PRIMARY);
-
-        // Content (Icon + Name)
-        JPanel content = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 0));
-        content.setOpaque(false);
-
-        ImageIcon icon = new ImageIcon("src/assets/games/" + iconName + ".png");
-        Image img = icon.getImage().getScaledInstance(50, 50, Image.SCALE_SMOOTH);
-        JLabel iconLabel = new JLabel(new ImageIcon(img));
-
-        JLabel nameLabel = new JLabel(gameName);
-        nameLabel.setFont(new Font("SansSerif", Font.PLAIN, 14));
-
-        content.add(iconLabel);
-        content.add(nameLabel);
-
-        // Context for lambda
-        final String finalGameName = gameName;
-
-        // Button
-        JButton playButton = new JButton("게임하기");
-        playButton.setBackground(KakaoColors.KAKAO_YELLOW);
-        playButton.setForeground(KakaoColors.KAKAO_BROWN);
-        playButton.setFont(new Font("SansSerif", Font.BOLD, 12));
-        playButton.setBorderPainted(false);
-        playButton.setFocusPainted(false);
-        playButton.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
-        playButton.addActionListener(e -> {
-          launchGame(msg.content);
-        });
+      // 버블 배경
+      g2.setColor(value.isGameInvite ? Color.WHITE : value.isMine ? KakaoColors.MY_BUBBLE : KakaoColors.OTHER_BUBBLE);
+      g2.fillRoundRect(bubbleX, bubbleY, layout.bubbleWidth, layout.bubbleHeight, 18, 18);
+      g2.setColor(BUBBLE_BORDER);
+      g2.drawRoundRect(bubbleX, bubbleY, layout.bubbleWidth - 1, layout.bubbleHeight - 1, 18, 18);
+
+      if (value.isGameInvite) {
+        paintInvite(g2, layout, bubbleX + INVITE_PAD, bubbleY + INVITE_PAD, layout.bubbleWidth - INVITE_PAD * 2);
+      } else if (value.isImage) {
+        paintImage(g2, bubbleX + BUBBLE_PAD_H, bubbleY + BUBBLE_PAD_V,
+            layout.bubbleWidth - BUBBLE_PAD_H * 2, layout.bubbleHeight - BUBBLE_PAD_V * 2);
+      } else {
+        g2.setFont(TEXT_FONT);
+        g2.setColor(value.isMine ? KakaoColors.KAKAO_BROWN : KakaoColors.TEXT_PRIMARY);
+        FontMetrics fm = g2.getFontMetrics();
+        int y = bubbleY + BUBBLE_PAD_V + fm.getAscent();
+        for (String line : layout.lines) {
+          g2.drawString(line, bubbleX + BUBBLE_PAD_H, y);
+          y += fm.getHeight();
+        }
+      }
+    }
 
-        card.add(titleLabel, BorderLayout.NORTH);
-        card.add(content, BorderLayout.CENTER);
-        card.add(playButton, BorderLayout.SOUTH);
+    /** 버블 옆 하단 정렬 텍스트 (alignRight면 x가 오른쪽 끝), 반대편 끝 좌표 반환 */
+    private int paintFooterText(Graphics2D g2, String text, Font font, Color color, int x, int bottom,
+        boolean alignRight) {
+      g2.setFont(font);
+      g2.setColor(color);
+      FontMetrics fm = g2.getFontMetrics();
+      int width = fm.stringWidth(text);
+      int left = alignRight ? x - width : x;
+      g2.drawString(text, left, bottom - 2 - fm.getDescent());
+      return alignRight ? left : left + width;
+    }
 
-        bubble.add(card, BorderLayout.CENTER); // Add card to bubble!
+    private String unreadText(BubbleLayout layout, int unreadCount) {
+      if (layout.unreadCount != unreadCount) {
+        layout.unreadCount = unreadCount;
+        layout.unreadText = String.valueOf(unreadCount);
+      }
+      return layout.unreadText;
+    }
 
-      } else if (msg.isImage) {
-        bubble.setBorder(BorderFactory.createEmptyBorder(10, 14, 10, 14));
-        JLabel imgLabel = new JLabel(msg.image);
-        bubble.add(imgLabel, BorderLayout.CENTER);
+    private void paintImage(Graphics2D g2, int x, int y, int w, int h) {
+      if (value.imageKey == null && value.image != null) {
+        g2.drawImage(value.image.getImage(), x, y, w, h, null);
+        return;
+      }
+      Image img = value.imageKey != null ? util.ImageCache.getDecoded(value.imageKey) : null;
+      if (img != null) {
+        g2.drawImage(img, x, y, w, h, null);
       } else {
-        bubble.setBorder(BorderFactory.createEmptyBorder(10, 14, 10, 14));
-        JTextArea textArea = new JTextArea(msg.content);
-        textArea.setWrapStyleWord(true);
-        textArea.setLineWrap(true);
-        textArea.setEditable(false);
-        textArea.setOpaque(false);
-        textArea.setFont(new Font("SansSerif", Font.PLAIN, 14));
-        textArea.setForeground(isMine ? KakaoColors.KAKAO_BROWN : KakaoColors.TEXT_PRIMARY);
+        // 디코딩 완료 전(또는 전송 중인 사진의 파일 읽기 전)에는 자리만 표시하고 완료되면 다시 그림
+        g2.setColor(IMAGE_PLACEHOLDER);
+        g2.fillRect(x, y, w, h);
+        if (value.imageKey != null) {
+          util.ImageCache.requestDecode(value.imageKey, repaintList);
+        }
+      }
+    }
 
-        // Calculate preferred size
-        int maxWidth = 250;
-        textArea.setSize(maxWidth, Short.MAX_VALUE);
-        Dimension d = textArea.getPreferredSize();
-        textArea.setPreferredSize(new Dimension(Math.min(maxWidth, d.width), d.height));
+    private void paintInvite(Graphics2D g2, BubbleLayout layout, int x, int y, int width) {
+      // Header
+      g2.setFont(INVITE_TITLE_FONT);
+      g2.setColor(KakaoColors.TEXT_PRIMARY);
+      FontMetrics title = g2.getFontMetrics();
+      g2.drawString(INVITE_TITLE, x, y + title.getAscent());
+      y += title.getHeight() + 5;
+
+      // Content (Icon + Name)
+      int iconX = x + INVITE_ICON_GAP;
+      g2.drawImage(layout.gameIcon.getImage(), iconX, y, null);
+      g2.setFont(TEXT_FONT);
+      FontMetrics name = g2.getFontMetrics();
+      g2.drawString(layout.gameName, iconX + AssetAtlas.INVITE_ICON_SIZE + INVITE_ICON_GAP,
+          y + (AssetAtlas.INVITE_ICON_SIZE - name.getHeight()) / 2 + name.getAscent());
+      y += AssetAtlas.INVITE_ICON_SIZE + 5;
+
+      // Button (클릭은 목록 마우스 리스너에서 처리)
+      g2.setColor(KakaoColors.KAKAO_YELLOW);
+      g2.fillRoundRect(x, y, width, INVITE_BUTTON_HEIGHT, 8, 8);
+      g2.setFont(INVITE_TITLE_FONT);
+      g2.setColor(KakaoColors.KAKAO_BROWN);
+      int textWidth = title.stringWidth(INVITE_BUTTON);
+      g2.drawString(INVITE_BUTTON, x + (width - textWidth) / 2,
+          y + (INVITE_BUTTON_HEIGHT - title.getHeight()) / 2 + title.getAscent());
+    }
 
-        bubble.add(textArea, BorderLayout.CENTER);
-      }
+    private void paintProfileIcon(Graphics2D g2, int x, int y) {
+      // Background (squircle-ish)
+      g2.setColor(KakaoColors.PROFILE_PLACEHOLDER);
+      g2.fillRoundRect(x, y, PROFILE_SIZE, PROFILE_SIZE, 16, 16);
 
-      return bubble;
+      // Simple avatar icon
+      g2.setColor(Color.WHITE);
+      g2.fillOval(x + 10, y + 6, 18, 18);
+      g2.fillArc(x + 6, y + 20, 26, 20, 0, 180);
     }
 
-    private JPanel createProfileIcon() {
-      JPanel icon = new JPanel() {
-        @Override
-        protected void paintComponent(Graphics g) {
-          super.paintComponent(g);
-          Graphics2D g2 = (Graphics2D) g.create();
-          g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+    // 셀 렌더러는 목록에 붙지 않으므로 불필요한 갱신 요청 무시
+    @Override
+    public void invalidate() {
+    }
 
-          // Background (squircle-ish)
-          g2.setColor(KakaoColors.PROFILE_PLACEHOLDER);
-          g2.fillRoundRect(0, 0, getWidth(), getHeight(), 16, 16);
+    @Override
+    public void validate() {
+    }
 
-          // Simple avatar icon
-          g2.setColor(Color.WHITE);
-          g2.fillOval(10, 6, 18, 18);
-          g2.fillArc(6, 20, 26, 20, 0, 180);
+    @Override
+    public void revalidate() {
+    }
 
-          g2.dispose();
+    @Override
+    public void repaint(long tm, int x, int y, int width, int height) {
+    }
+
+    @Override
+    public void repaint(Rectangle r) {
+    }
+  }
+
+  /** 단어 단위 줄바꿈 (단어가 너비보다 길면 글자 단위로 자름) */
+  private static String[] wrapText(String text, FontMetrics fm, int maxWidth) {
+    java.util.List<String> lines = new java.util.ArrayList<>();
+    for (String paragraph : text.split("\n", -1)) {
+      int start = 0;
+      while (start < paragraph.length()) {
+        int end = start;
+        int lastSpace = -1;
+        int width = 0;
+        while (end < paragraph.length()) {
+          int charWidth = fm.charWidth(paragraph.charAt(end));
+          if (width + charWidth > maxWidth && end > start)
+            break;
+          if (paragraph.charAt(end) == ' ')
+            lastSpace = end;
+          width += charWidth;
+          end++;
         }
-      };
+        if (end < paragraph.length() && lastSpace > start) {
+          end = lastSpace + 1;
+        }
+        lines.add(paragraph.substring(start, end));
+        start = end;
+      }
+      if (paragraph.isEmpty()) {
+        lines.add("");
+      }
+    }
+    return lines.toArray(new String[0]);
+  }
+
+  private static String gameNameOf(String gameType) {
+    switch (gameType) {
+      case "SPACE":
+        return "슈팅 게임";
+      case "BRICK":
+        return "벽돌깨기";
+      case "TYPING":
+        return "타이핑 게임";
+      case "VOLLEY":
+        return "배구 게임";
+      default:
+        return "알 수 없는 게임";
+    }
+  }
 
-      icon.setOpaque(false);
-      icon.setPreferredSize(new Dimension(38, 38));
-      return icon;
+  private static String gameIconOf(String gameType) {
+    switch (gameType) {
+      case "BRICK":
+        return "brick";
+      case "TYPING":
+        return "typing";
+      case "VOLLEY":
+        return "volley";
+      default:
+        return "space";
     }
   }
 
@@ -873,10 +1029,22 @@ public class ChatPage extends JPanel implements SocketClient.MessageListener {
 
         ProcessBuilder pb = new ProcessBuilder("java", "-cp", gameBinPath, finalMainClass, username, roomId);
         pb.directory(new File(rootDir, finalProjectPath)); // Set working directory for game assets
-        pb.inheritIO();
+        pb.redirectInput(ProcessBuilder.Redirect.INHERIT);
+        pb.redirectError(ProcessBuilder.Redirect.INHERIT);
         Process process = pb.start();
         ClientLogger.ui("Game process started: " + process.toString());
 
+        // 게임 출력은 그대로 보여주고, 결과 줄(GAME_SCORE:...)은 로그인한 채팅 연결로 서버에 전달
+        try (java.io.BufferedReader out = new java.io.BufferedReader(
+            new java.io.InputStreamReader(process.getInputStream()))) {
+          String line;
+          while ((line = out.readLine()) != null) {
+            if (!app.getSocketClient().forwardGameScore(line, roomId)) {
+              System.out.println(line);
+            }
+          }
+        }
+
       } catch (Exception e) {
         ClientLogger.error("Failed to launch game", e);
         SwingUtilities.invokeLater(
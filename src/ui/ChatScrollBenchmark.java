@@ -0,0 +1,135 @@
+package ui;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import javax.swing.JList;
+import javax.swing.SwingUtilities;
+
+/**
+ * 채팅 목록 스크롤 측정 (수동 실행용, 화면 없이 동작)
+ * 텍스트/이모티콘/사진/게임 초대가 섞인 메시지를 넣고 목록을 위에서 아래로 스크롤하며 그린 뒤
+ * 한 번 훑을 때의 그리기 시간과 EDT에서 할당한 바이트 수를 출력
+ *
+ * 실행: java -Djava.awt.headless=true -cp out ui.ChatScrollBenchmark [메시지 수]
+ */
+class ChatScrollBenchmark {
+  private static final int DEFAULT_MESSAGES = 300;
+  private static final int LIST_WIDTH = 380;
+  private static final int VIEWPORT_HEIGHT = 480;
+  private static final int SCROLL_STEP = 40; // 마우스 휠 한 칸 정도
+  private static final int WARMUP_PASSES = 5;
+  private static final int MEASURED_PASSES = 20;
+
+  private static final String[] TEXTS = {
+      "ㅋㅋㅋ",
+      "오늘 저녁 뭐 먹을래?",
+      "내일 회의 자료 공유드립니다. 3페이지 일정표랑 5페이지 예산 부분 한 번씩 확인 부탁드려요.",
+      "ok",
+      "이번 주말에 다 같이 보드게임 카페 가는 거 어때요? 토요일 오후 두 시쯤이면 다들 괜찮을 것 같은데 "
+          + "혹시 안 되는 사람 있으면 알려주세요",
+  };
+
+  public static void main(String[] args) throws Exception {
+    int count = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_MESSAGES;
+    String[] imageKeys = { util.ImageCache.put(samplePng(640, 480)), util.ImageCache.put(samplePng(300, 600)) };
+
+    ChatPage page = new ChatPage(null, "benchmark", "benchmark");
+    JList<?> list = findList(page);
+    ChatMessageModel model = (ChatMessageModel) list.getModel();
+    for (int i = 0; i < count; i++) {
+      model.add(sampleMessage(i, imageKeys));
+    }
+
+    SwingUtilities.invokeAndWait(() -> {
+      list.setSize(LIST_WIDTH, 1);
+      list.setSize(LIST_WIDTH, list.getPreferredSize().height);
+      for (int i = 0; i < WARMUP_PASSES; i++) {
+        scroll(list);
+      }
+    });
+    Thread.sleep(500); // 화면에 보인 사진의 백그라운드 디코딩 완료 대기
+
+    SwingUtilities.invokeAndWait(() -> {
+      com.sun.management.ThreadMXBean threads =
+          (com.sun.management.ThreadMXBean) java.lang.management.ManagementFactory.getThreadMXBean();
+      long thread = Thread.currentThread().getId();
+      long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+      long start = System.nanoTime();
+      int frames = 0;
+      for (int i = 0; i < MEASURED_PASSES; i++) {
+        frames += scroll(list);
+      }
+      long elapsed = System.nanoTime() - start;
+      long allocated = threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+
+      System.out.printf("messages=%d listHeight=%d framesPerPass=%d%n", model.getSize(), list.getHeight(),
+          frames / MEASURED_PASSES);
+      System.out.printf("paint: %.2f ms/pass, %.1f us/frame%n", elapsed / 1e6 / MEASURED_PASSES,
+          elapsed / 1e3 / frames);
+      System.out.printf("allocated: %d KB/pass, %d bytes/frame%n", allocated / 1024 / MEASURED_PASSES,
+          allocated / frames);
+    });
+    System.exit(0);
+  }
+
+  /** 목록을 위에서 아래로 한 번 스크롤하며 보이는 영역만 그림 (그린 화면 수 반환) */
+  private static int scroll(JList<?> list) {
+    BufferedImage viewport = new BufferedImage(LIST_WIDTH, VIEWPORT_HEIGHT, BufferedImage.TYPE_INT_RGB);
+    int frames = 0;
+    for (int y = 0; y + VIEWPORT_HEIGHT <= Math.max(list.getHeight(), VIEWPORT_HEIGHT); y += SCROLL_STEP) {
+      Graphics2D g = viewport.createGraphics();
+      g.translate(0, -y);
+      g.setClip(0, y, LIST_WIDTH, VIEWPORT_HEIGHT);
+      list.paint(g);
+      g.dispose();
+      frames++;
+    }
+    return frames;
+  }
+
+  /** 텍스트 위주에 이모티콘/사진/게임 초대가 섞인 메시지 */
+  private static ChatMessage sampleMessage(int i, String[] imageKeys) {
+    String sender = i % 3 == 0 ? "me" : (i % 2 == 0 ? "alice" : "bob");
+    boolean mine = sender.equals("me");
+    ChatMessage msg;
+    if (i % 10 == 3) {
+      msg = ChatMessage.ofEmoji(sender, AssetAtlas.EMOTICONS[i % AssetAtlas.EMOTICONS.length], mine);
+    } else if (i % 15 == 7) {
+      msg = ChatMessage.ofImageKey(sender, imageKeys[i % imageKeys.length], mine);
+    } else if (i % 25 == 11) {
+      msg = new ChatMessage(sender, "SPACE", mine, true);
+    } else {
+      msg = new ChatMessage(sender, TEXTS[i % TEXTS.length], mine);
+    }
+    msg.unreadCount = i % 4;
+    return msg;
+  }
+
+  private static byte[] samplePng(int width, int height) throws java.io.IOException {
+    BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = image.createGraphics();
+    g.setPaint(new java.awt.GradientPaint(0, 0, java.awt.Color.ORANGE, width, height, java.awt.Color.BLUE));
+    g.fillRect(0, 0, width, height);
+    g.dispose();
+    java.io.ByteArrayOutputStream out = new java.io.ByteArrayOutputStream();
+    javax.imageio.ImageIO.write(image, "png", out);
+    return out.toByteArray();
+  }
+
+  private static JList<?> findList(Container parent) {
+    for (Component child : parent.getComponents()) {
+      if (child instanceof JList) {
+        return (JList<?>) child;
+      }
+      if (child instanceof Container) {
+        JList<?> found = findList((Container) child);
+        if (found != null) {
+          return found;
+        }
+      }
+    }
+    return null;
+  }
+}
@@ -9,12 +9,23 @@ import java.awt.*;
 /**
  * 클라이언트 애플리케이션의 메인 클래스
  * 페이지 전환, 소켓 클라이언트 관리 등 전체 앱 제어
+ *
+ * 채팅 페이지는 roomId별로 최근에 연 순서대로 캐시해서 다시 열 때 재생성/재입장하지 않음
+ * (방 이벤트는 각 페이지가 SocketClient에 직접 구독하고, 방 정보가 없는 이벤트만 여기서 전달)
  */
-public class ClientApp extends JFrame {
+public class ClientApp extends JFrame implements SocketClient.MessageListener {
+  public static final int DEFAULT_MAX_CACHED_CHATS = 8; // 캐시할 채팅 페이지 수
+
   private CardLayout cardLayout; // 페이지 전환용 레이아웃
   private JPanel mainPanel; // 메인 컨테이너 패널
   private SocketClient socketClient; // 서버 연결 소켓 클라이언트
 
+  // roomId -> 채팅 페이지 (접근 순서 LRU)
+  private final java.util.LinkedHashMap<String, ChatPage> chatPages = new java.util.LinkedHashMap<>(16, 0.75f, true);
+  private int maxCachedChats = DEFAULT_MAX_CACHED_CHATS;
+  private ChatPage currentChat; // 마지막으로 연 채팅 페이지
+  private boolean chatVisible; // currentChat이 화면에 보이는지
+
   /** 생성자: 앱 초기화 */
   public ClientApp() {
     setTitle("KakaoTalk");
@@ -23,6 +34,10 @@ public class ClientApp extends JFrame {
     setLocationRelativeTo(null);
 
     socketClient = new SocketClient("localhost", 12345);
+    socketClient.setMessageListener(this);
+
+    // 이모티콘/게임 아이콘을 백그라운드에서 미리 로딩
+    AssetAtlas.preload();
 
     cardLayout = new CardLayout();
     mainPanel = new JPanel(cardLayout);
@@ -30,8 +45,6 @@ public class ClientApp extends JFrame {
     // Add Pages
     mainPanel.add(new LoginPage(this), "Login");
     mainPanel.add(new MainPage(this), "Main");
-    // Initial dummy chat page (will be replaced when user clicks a friend)
-    mainPanel.add(new JPanel(), "Chat");
 
     add(mainPanel);
 
@@ -45,24 +58,124 @@ public class ClientApp extends JFrame {
 
   public void showPage(String page) {
     ClientLogger.page("Navigating to: " + page);
+    hideCurrentChat();
     cardLayout.show(mainPanel, page);
   }
 
   public void showChatWith(String otherUsername) {
     ClientLogger.page("Opening chat with: " + otherUsername);
     // Navigate to chat page with specific user
-    ChatPage chatPage = new ChatPage(this, otherUsername);
-    mainPanel.remove(2); // Remove old chat page
-    mainPanel.add(chatPage, "Chat");
-    cardLayout.show(mainPanel, "Chat");
+    String roomId = ChatPage.generateRoomId(socketClient.getUsername(), otherUsername);
+    openChat(roomId, () -> new ChatPage(this, otherUsername));
   }
 
   public void showGroupChat(String roomId, String roomName) {
     ClientLogger.page("Opening group chat: " + roomName + " (" + roomId + ")");
-    ChatPage chatPage = new ChatPage(this, roomName, roomId);
-    mainPanel.remove(2);
-    mainPanel.add(chatPage, "Chat");
-    cardLayout.show(mainPanel, "Chat");
+    openChat(roomId, () -> new ChatPage(this, roomName, roomId));
+  }
+
+  /** 캐시된 채팅 페이지를 보여주거나 새로 만들어서 캐시에 추가 */
+  private void openChat(String roomId, java.util.function.Supplier<ChatPage> factory) {
+    ChatPage chatPage = chatPages.get(roomId);
+    if (chatPage == currentChat && chatVisible)
+      return;
+    hideCurrentChat();
+    if (chatPage == null) {
+      chatPage = factory.get();
+      chatPages.put(roomId, chatPage);
+      mainPanel.add(chatPage, "Chat:" + roomId);
+      evictChats();
+    } else {
+      ClientLogger.page("Reusing cached chat page: " + roomId);
+      chatPage.onShown();
+    }
+    currentChat = chatPage;
+    chatVisible = true;
+    cardLayout.show(mainPanel, "Chat:" + roomId);
+  }
+
+  /** 보이던 채팅 페이지를 가려진 상태로 전환 (서버에서 방 나가기) */
+  private void hideCurrentChat() {
+    if (currentChat != null && chatVisible) {
+      chatVisible = false;
+      currentChat.onHidden();
+    }
+  }
+
+  /** 캐시 상한을 넘은 가장 오래된 채팅 페이지 제거 */
+  private void evictChats() {
+    java.util.Iterator<ChatPage> it = chatPages.values().iterator();
+    while (chatPages.size() > maxCachedChats && it.hasNext()) {
+      ChatPage eldest = it.next();
+      if (eldest == currentChat)
+        continue;
+      ClientLogger.page("Evicting cached chat page: " + eldest.getRoomId());
+      it.remove();
+      eldest.dispose();
+      mainPanel.remove(eldest);
+    }
+  }
+
+  /** 채팅 페이지 캐시 상한 설정 */
+  public void setMaxCachedChats(int maxCachedChats) {
+    this.maxCachedChats = Math.max(1, maxCachedChats);
+    evictChats();
+  }
+
+  /** roomId에 해당하는 캐시된 페이지 (방 정보가 없는 이벤트는 마지막으로 연 페이지) */
+  private ChatPage chatPageFor(String roomId) {
+    return roomId != null ? chatPages.get(roomId) : currentChat;
+  }
+
+  // 방 정보가 없는 수신 이벤트 전달 (1:1 IMG 등)
+
+  @Override
+  public void onMessageReceived(String roomId, long seq, String message) {
+    ChatPage page = chatPageFor(roomId);
+    if (page != null)
+      page.onMessageReceived(roomId, seq, message);
+  }
+
+  @Override
+  public void onImageReceived(String roomId, long seq, String sender, String imageKey) {
+    ChatPage page = chatPageFor(roomId);
+    if (page != null)
+      page.onImageReceived(roomId, seq, sender, imageKey);
+  }
+
+  @Override
+  public void onEmojiReceived(String roomId, long seq, String sender, String emojiName) {
+    ChatPage page = chatPageFor(roomId);
+    if (page != null)
+      page.onEmojiReceived(roomId, seq, sender, emojiName);
+  }
+
+  @Override
+  public void onGameInviteReceived(String roomId, long seq, String sender, String gameType) {
+    ChatPage page = chatPageFor(roomId);
+    if (page != null)
+      page.onGameInviteReceived(roomId, seq, sender, gameType);
+  }
+
+  @Override
+  public void onTypingUsersReceived(String roomId, java.util.List<String> usernames) {
+    ChatPage page = chatPageFor(roomId);
+    if (page != null)
+      page.onTypingUsersReceived(roomId, usernames);
+  }
+
+  @Override
+  public void onMessageAcked(String roomId, long seq) {
+    ChatPage page = chatPageFor(roomId);
+    if (page != null)
+      page.onMessageAcked(roomId, seq);
+  }
+
+  @Override
+  public void onReadReceiptsReceived(String roomId, network.ReadReceipts receipts) {
+    ChatPage page = chatPageFor(roomId);
+    if (page != null)
+      page.onReadReceiptsReceived(roomId, receipts);
   }
 
   public static void main(String[] args) {
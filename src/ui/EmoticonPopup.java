@@ -4,9 +4,6 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.io.File;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.Map;
 import java.util.function.Consumer;
 
 /**
@@ -16,15 +13,6 @@ import java.util.function.Consumer;
 public class EmoticonPopup extends JPopupMenu {
   private Consumer<String> onSelect; // 이모티콘 선택 시 콜백
 
-  // 사용 가능한 이모티콘 목록
-  private static final String[] EMOTICONS = {
-      "sangsang_happy", "sangsang_sad", "sangsang_angry",
-      "sangsang_love", "sangsang_ok", "sangsang_hello"
-  };
-
-  // 이미지 캐시 (반복 로딩 방지)
-  private static final Map<String, ImageIcon> imageCache = new ConcurrentHashMap<>();
-
   /** 생성자: 팝업 메뉴 초기화 */
   public EmoticonPopup(Consumer<String> onSelect) {
     this.onSelect = onSelect;
@@ -32,7 +20,7 @@ public class EmoticonPopup extends JPopupMenu {
     setBorder(BorderFactory.createLineBorder(Color.LIGHT_GRAY));
     setBackground(Color.WHITE);
 
-    for (String emojiName : EMOTICONS) {
+    for (String emojiName : AssetAtlas.EMOTICONS) {
       add(createEmojiButton(emojiName));
     }
   }
@@ -47,19 +35,8 @@ public class EmoticonPopup extends JPopupMenu {
     label.setPreferredSize(new Dimension(60, 60));
     label.setHorizontalAlignment(SwingConstants.CENTER);
 
-    // 이미지 비동기 로딩 (캐시 사용, EDT 블로킹 방지)
-    if (imageCache.containsKey(emojiName)) {
-      label.setIcon(imageCache.get(emojiName));
-    } else {
-      new Thread(() -> {
-        String path = "src/assets/emoticons/" + emojiName + ".png";
-        ImageIcon icon = new ImageIcon(path);
-        Image img = icon.getImage().getScaledInstance(60, 60, Image.SCALE_SMOOTH);
-        ImageIcon scaledIcon = new ImageIcon(img);
-        imageCache.put(emojiName, scaledIcon);
-        SwingUtilities.invokeLater(() -> label.setIcon(scaledIcon));
-      }).start();
-    }
+    // 시작 시 미리 로딩된 공용 아이콘 사용 (디스크 I/O 없음)
+    label.setIcon(AssetAtlas.getEmoticon(emojiName, AssetAtlas.POPUP_ICON_SIZE));
 
     panel.add(label, BorderLayout.CENTER);
 
@@ -6,7 +6,6 @@ import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 
 /**
@@ -19,9 +18,6 @@ public class GameSelectPopup extends JPopupMenu {
   // 게임 이름 -> 내부 코드 매핑
   private static final Map<String, String> GAMES = new HashMap<>();
 
-  // 이미지 캐시 (반복 로딩 방지)
-  private static final Map<String, ImageIcon> imageCache = new ConcurrentHashMap<>();
-
   static {
     GAMES.put("슈팅 게임", "SPACE"); // 슈팅 게임
     GAMES.put("벽돌깨기", "BRICK"); // 벽돌깨기 게임
@@ -54,19 +50,8 @@ public class GameSelectPopup extends JPopupMenu {
     iconLabel.setPreferredSize(new Dimension(60, 60));
     iconLabel.setHorizontalAlignment(SwingConstants.CENTER);
 
-    // 이미지 비동기 로딩 (캐시 사용, EDT 블로킹 방지)
-    if (imageCache.containsKey(iconName)) {
-      iconLabel.setIcon(imageCache.get(iconName));
-    } else {
-      new Thread(() -> {
-        String path = "src/assets/games/" + iconName + ".png";
-        ImageIcon icon = new ImageIcon(path);
-        Image img = icon.getImage().getScaledInstance(60, 60, Image.SCALE_SMOOTH);
-        ImageIcon scaledIcon = new ImageIcon(img);
-        imageCache.put(iconName, scaledIcon);
-        SwingUtilities.invokeLater(() -> iconLabel.setIcon(scaledIcon));
-      }).start();
-    }
+    // 시작 시 미리 로딩된 공용 아이콘 사용 (디스크 I/O 없음)
+    iconLabel.setIcon(AssetAtlas.getGameIcon(iconName, AssetAtlas.POPUP_ICON_SIZE));
 
     JLabel textLabel = new JLabel(gameName);
     textLabel.setFont(new Font("SansSerif", Font.PLAIN, 12));
@@ -29,10 +29,18 @@ public class MainPage extends JPanel {
   private SidebarButton moreBtn; // 더보기 탭 버튼
 
   // 캐시 데이터
-  private String[] cachedUsers = new String[0]; // 온라인 사용자 캐시
-  private java.util.Map<String, String> cachedChats = new java.util.HashMap<>(); // 채팅방 캐시
+  private java.util.Map<String, String> onlineUsers = new java.util.LinkedHashMap<>(); // 온라인 사용자 캐시 (이름 -> 상태)
+  // 채팅방 캐시: roomId -> 마지막 메시지 (최근 메시지가 있는 방이 마지막)
+  private java.util.Map<String, String> cachedChats = new java.util.LinkedHashMap<>();
+  private java.util.Map<String, Integer> chatMemberCounts = new java.util.HashMap<>(); // 채팅방 인원 수
   private int totalUnreadCount = 0; // 총 안읽은 메시지 수
 
+  // 응답 대기 중인 프로필 요청
+  private String pendingProfileUser; // 프로필을 요청한 사용자
+  private String pendingProfileStatus; // 요청 시점의 상태 메시지
+  private boolean pendingProfileIsSelf; // 본인 프로필 여부
+  private Timer profileTimeoutTimer; // 응답이 없을 때 빈 점수로 표시하기 위한 타이머
+
   /** 생성자: 메인 페이지 UI 초기화 */
   public MainPage(ClientApp app) {
     this.app = app;
@@ -160,25 +168,8 @@ public class MainPage extends JPanel {
                 // Use cached scores directly
                 showProfilePopup(finalTargetUser, finalStatusMsg, cachedScores, finalIsSelf);
               } else {
-                // Request in background, then show popup on EDT
-                new Thread(() -> {
-                  // Request profile (network call - must be off EDT)
-                  app.getSocketClient().requestProfile(finalTargetUser);
-
-                  // Wait a bit for response to arrive
-                  try {
-                    Thread.sleep(200);
-                  } catch (Exception ex) {
-                  }
-
-                  // Show popup on EDT with whatever we got
-                  javax.swing.SwingUtilities.invokeLater(() -> {
-                    java.util.Map<String, Integer> scores = app.getSocketClient().getCachedProfile(finalTargetUser);
-                    if (scores == null)
-                      scores = new java.util.HashMap<>();
-                    showProfilePopup(finalTargetUser, finalStatusMsg, scores, finalIsSelf);
-                  });
-                }).start();
+                // 프로필 요청 후 응답(ProfileListener) 수신 시 팝업 표시
+                requestProfilePopup(finalTargetUser, finalStatusMsg, finalIsSelf);
               }
             }
 
@@ -204,38 +195,61 @@ public class MainPage extends JPanel {
       app.getSocketClient().setUserListListener(new network.SocketClient.UserListListener() {
         @Override
         public void onUserListUpdated(String[] users) {
-          SwingUtilities.invokeLater(() -> {
-            cachedUsers = users;
-            if (currentTab == Tab.FRIENDS) {
-              updateFriendList();
+          onlineUsers.clear();
+          for (String userStr : users) {
+            String[] info = parseUserEntry(userStr);
+            if (!info[0].isEmpty()) {
+              onlineUsers.put(info[0], info[1]);
             }
-          });
+          }
+          if (currentTab == Tab.FRIENDS) {
+            updateFriendList();
+          }
         }
 
         @Override
-        public void onUserJoined(String username) {
-          // Trigger full update usually via onUserListUpdated
+        public void onPresenceChanged(java.util.List<String> updated, java.util.List<String> removed) {
+          applyPresenceDelta(updated, removed);
         }
 
         @Override
-        public void onUserLeft(String username) {
+        public void onChatListUpdate(String roomId, String lastMessage) {
+          cachedChats.remove(roomId);
+          cachedChats.put(roomId, lastMessage);
+          if (currentTab == Tab.CHATS) {
+            if (!listModel.contains(roomId)) {
+              listModel.add(0, roomId); // Add to top
+            } else {
+              // Move to top? simplified: just repaint or leave it
+              listModel.removeElement(roomId);
+              listModel.add(0, roomId);
+            }
+            mainList.repaint();
+          }
         }
 
         @Override
-        public void onChatListUpdate(String roomId, String lastMessage) {
-          SwingUtilities.invokeLater(() -> {
-            cachedChats.put(roomId, lastMessage);
-            if (currentTab == Tab.CHATS) {
-              if (!listModel.contains(roomId)) {
-                listModel.add(0, roomId); // Add to top
-              } else {
-                // Move to top? simplified: just repaint or leave it
-                listModel.removeElement(roomId);
-                listModel.add(0, roomId);
-              }
-              mainList.repaint();
-            }
-          });
+        public void onRoomListReceived(java.util.List<network.dto.RoomListMessage.Entry> rooms) {
+          // 스냅샷은 최근 순이므로 거꾸로 넣어서 가장 최근 방이 마지막이 되게 함
+          cachedChats.clear();
+          chatMemberCounts.clear();
+          for (int i = rooms.size() - 1; i >= 0; i--) {
+            network.dto.RoomListMessage.Entry room = rooms.get(i);
+            cachedChats.put(room.getRoomId(), room.getLastMessage());
+            chatMemberCounts.put(room.getRoomId(), room.getMemberCount());
+          }
+          if (currentTab == Tab.CHATS) {
+            // 목록 전체를 한 번의 모델 변경으로 교체
+            listModel.clear();
+            listModel.addAll(chatsByRecency());
+          }
+        }
+      });
+
+      // 프로필 응답 수신 시 대기 중인 팝업 표시 (EDT에서 호출됨)
+      app.getSocketClient().setProfileListener((username, scores) -> {
+        if (username.equals(pendingProfileUser)) {
+          showPendingProfile(scores);
         }
       });
 
@@ -243,19 +257,15 @@ public class MainPage extends JPanel {
       app.getSocketClient().setUnreadListener(new network.SocketClient.UnreadListener() {
         @Override
         public void onUnreadCountUpdated(String roomId, int count) {
-          SwingUtilities.invokeLater(() -> {
-            if (currentTab == Tab.CHATS) {
-              mainList.repaint();
-            }
-          });
+          if (currentTab == Tab.CHATS) {
+            mainList.repaint();
+          }
         }
 
         @Override
         public void onTotalUnreadUpdated(int total) {
-          SwingUtilities.invokeLater(() -> {
-            totalUnreadCount = total;
-            chatsBtn.repaint(); // 채팅 버튼 재렌더링
-          });
+          totalUnreadCount = total;
+          chatsBtn.repaint(); // 채팅 버튼 재렌더링
         }
       });
     }
@@ -346,36 +356,79 @@ public class MainPage extends JPanel {
       listModel.clear();
       // Add "Me" first
       String me = app.getSocketClient().getUsername();
-      // Find my status from cachedUsers if possible? Or locally store it?
-      // Simplified: Just show name for Me, or try to find my entry in list
-
-      String myEntry = me + " (Me)";
-      // Check if cachedUsers has me with status
-      for (String userStr : cachedUsers) {
-        String[] parts = userStr.split("\\|");
-        if (parts[0].equals(me)) {
-          if (parts.length > 1 && !parts[1].isEmpty()) {
-            myEntry = me + " (Me)|" + parts[1];
-          }
-          break;
-        }
-      }
-
       if (me != null) {
-        listModel.addElement(myEntry);
+        listModel.addElement(toMyEntry(me, onlineUsers.get(me)));
       }
 
-      for (String userStr : cachedUsers) {
-        String[] parts = userStr.split("\\|");
-        String username = parts[0];
-        if (me == null || !username.equals(me)) {
+      for (java.util.Map.Entry<String, String> user : onlineUsers.entrySet()) {
+        if (me == null || !user.getKey().equals(me)) {
           // We keep the full string "name|status" in the model
-          listModel.addElement(userStr);
+          listModel.addElement(user.getKey() + "|" + user.getValue());
         }
       }
     });
   }
 
+  /** 접속자 델타를 목록 모델에 제자리 반영 (전체 재구성 없이) */
+  private void applyPresenceDelta(java.util.List<String> updated, java.util.List<String> removed) {
+    String me = app.getSocketClient().getUsername();
+    boolean visible = currentTab == Tab.FRIENDS;
+
+    for (String username : removed) {
+      if (onlineUsers.remove(username) != null && visible) {
+        int index = indexOfUser(username, me);
+        if (index >= 0) {
+          listModel.remove(index);
+        }
+      }
+    }
+
+    for (String userStr : updated) {
+      String[] info = parseUserEntry(userStr);
+      String username = info[0];
+      if (username.isEmpty())
+        continue;
+      onlineUsers.put(username, info[1]);
+      if (!visible)
+        continue;
+
+      String entry = username.equals(me) ? toMyEntry(me, info[1]) : username + "|" + info[1];
+      int index = indexOfUser(username, me);
+      if (index >= 0) {
+        listModel.set(index, entry);
+      } else if (!username.equals(me)) {
+        listModel.addElement(entry);
+      }
+    }
+  }
+
+  /** 친구 목록 모델에서 사용자 항목 위치 검색 */
+  private int indexOfUser(String username, String me) {
+    String name = username.equals(me) ? username + " (Me)" : username;
+    for (int i = 0; i < listModel.getSize(); i++) {
+      String entry = listModel.getElementAt(i);
+      if (entry.equals(name) || entry.startsWith(name + "|")) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private String toMyEntry(String me, String status) {
+    String myEntry = me + " (Me)";
+    if (status != null && !status.isEmpty()) {
+      myEntry = me + " (Me)|" + status;
+    }
+    return myEntry;
+  }
+
+  /** 최근 메시지 순 채팅방 목록 */
+  private java.util.List<String> chatsByRecency() {
+    java.util.List<String> roomIds = new java.util.ArrayList<>(cachedChats.keySet());
+    java.util.Collections.reverse(roomIds);
+    return roomIds;
+  }
+
   private void switchTab(Tab tab) {
     currentTab = tab;
     friendsBtn.repaint();
@@ -388,9 +441,7 @@ public class MainPage extends JPanel {
       updateFriendList();
     } else if (tab == Tab.CHATS) {
       titleLabel.setText("Chats");
-      for (String roomId : cachedChats.keySet()) {
-        listModel.addElement(roomId);
-      }
+      listModel.addAll(chatsByRecency());
     } else {
       titleLabel.setText("More");
       listModel.addElement("Settings");
@@ -484,13 +535,13 @@ public class MainPage extends JPanel {
   }
 
   private void openUserSelectDialog() {
-    if (cachedUsers == null || cachedUsers.length == 0) {
+    String myName = app.getSocketClient().getUsername();
+    if (onlineUsers.isEmpty() || (onlineUsers.size() == 1 && onlineUsers.containsKey(myName))) {
       JOptionPane.showMessageDialog(this, "접속 중인 친구가 없습니다.");
       return;
     }
 
-    String myName = app.getSocketClient().getUsername();
-    UserSelectDialog dialog = new UserSelectDialog(app, cachedUsers, myName);
+    UserSelectDialog dialog = new UserSelectDialog(app, onlineUsers.keySet().toArray(new String[0]), myName);
     dialog.setVisible(true);
 
     if (dialog.isConfirmed()) {
@@ -518,21 +569,10 @@ public class MainPage extends JPanel {
         // 1. Open chat page FIRST (This ensures we join the room and set listeners)
         app.showGroupChat(roomId, roomName);
 
-        // 2. Invite users (in background/separate thread to avoid any blocking on EDT?
-        // Writer is usually fast, but safe to do after showing UI)
-        new Thread(() -> {
-          try {
-            // Small delay to ensure join is processed if needed, though usually not
-            // strictly necessary
-            // if server handles out of order. But here we just want to ensure UI is up.
-            Thread.sleep(100);
-            for (String user : selectedUsers) {
-              app.getSocketClient().inviteUser(roomId, user);
-            }
-          } catch (Exception ex) {
-            ex.printStackTrace();
-          }
-        }).start();
+        // 2. Invite users (openRoom이 JOIN_ROOM을 송신 큐에 바로 넣으므로 INVITE는 항상 그 뒤에 전송됨)
+        for (String user : selectedUsers) {
+          app.getSocketClient().inviteUser(roomId, user);
+        }
       }
     }
   }
@@ -596,6 +636,9 @@ public class MainPage extends JPanel {
             String myName = app.getSocketClient().getUsername();
             displayName = users[0].equals(myName) ? users[1] : users[0];
           }
+        } else if (chatMemberCounts.containsKey(roomId)) {
+          // 그룹 채팅방은 인원 수 표시
+          displayName = displayName + " (" + chatMemberCounts.get(roomId) + ")";
         }
       }
 
@@ -694,6 +737,31 @@ public class MainPage extends JPanel {
     return new String[] { name, status };
   }
 
+  /** 프로필 요청 (송신 큐에 넣고 바로 반환, 팝업은 응답 수신 시 표시) */
+  private void requestProfilePopup(String targetUser, String statusMsg, boolean isSelf) {
+    pendingProfileUser = targetUser;
+    pendingProfileStatus = statusMsg;
+    pendingProfileIsSelf = isSelf;
+    app.getSocketClient().requestProfile(targetUser);
+
+    if (profileTimeoutTimer == null) {
+      profileTimeoutTimer = new Timer(1000, e -> {
+        if (pendingProfileUser != null) {
+          showPendingProfile(new java.util.HashMap<>());
+        }
+      });
+      profileTimeoutTimer.setRepeats(false);
+    }
+    profileTimeoutTimer.restart();
+  }
+
+  private void showPendingProfile(java.util.Map<String, Integer> scores) {
+    String targetUser = pendingProfileUser;
+    pendingProfileUser = null;
+    profileTimeoutTimer.stop();
+    showProfilePopup(targetUser, pendingProfileStatus, scores, pendingProfileIsSelf);
+  }
+
   private void showProfilePopup(String targetUser, String statusMsg, java.util.Map<String, Integer> scores,
       boolean isSelf) {
     UserProfilePopup popup = new UserProfilePopup(
@@ -0,0 +1,257 @@
+package util;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.swing.SwingUtilities;
+
+/**
+ * 채팅 이미지 캐시 유틸리티 클래스
+ * 이미지 내용 해시를 키로 압축 원본(바이트)과 말풍선 크기로 축소된 비트맵을 분리해서 보관
+ *
+ * - 압축 원본: 바이트 예산 내에서 LRU 유지
+ * - 축소 비트맵: 픽셀 크기 기준의 더 작은 예산으로 LRU 유지, 화면에 보일 때만 디코딩
+ * - 압축 원본까지 제거된 사진은 등록된 원본 위치(로컬 메시지 캐시)에서 다시 읽고, 없으면 빈 자리로 둠
+ */
+public class ImageCache {
+  public static final int SCALED_WIDTH = 200; // 말풍선 이미지 너비
+
+  private static final long COMPRESSED_BUDGET_BYTES = 32L * 1024 * 1024; // 압축 원본 예산
+  private static final long DECODED_BUDGET_BYTES = 16L * 1024 * 1024; // 축소 비트맵 예산
+
+  private static final LinkedHashMap<String, byte[]> compressed = new LinkedHashMap<>(16, 0.75f, true);
+  private static final LinkedHashMap<String, BufferedImage> decoded = new LinkedHashMap<>(16, 0.75f, true);
+  private static final Map<String, Dimension> scaledSizes = new LinkedHashMap<>(); // 키 -> 축소 후 크기 (작아서 원본이 제거돼도 유지)
+  private static final Set<String> pendingDecodes = new HashSet<>(); // 디코딩 중인 키
+  private static final Set<String> missing = new HashSet<>(); // 원본을 다시 구할 수 없는 키 (디코딩 요청 무시)
+  private static volatile java.util.function.Function<String, byte[]> source; // 제거된 압축 원본을 다시 읽을 곳
+  private static long compressedBytes = 0;
+  private static long decodedBytes = 0;
+
+  // 캐시 지표
+  private static final AtomicLong hits = new AtomicLong();
+  private static final AtomicLong misses = new AtomicLong();
+  private static final AtomicLong evictions = new AtomicLong();
+
+  private static final ExecutorService decoder = Executors.newSingleThreadExecutor(r -> {
+    Thread t = new Thread(r, "image-decoder");
+    t.setDaemon(true);
+    return t;
+  });
+
+  /** 예산 초과로 제거된 압축 원본을 다시 읽을 곳 등록 (디코더 스레드에서 호출, 없으면 null 반환) */
+  public static void setSource(java.util.function.Function<String, byte[]> loader) {
+    source = loader;
+  }
+
+  /**
+   * 압축 이미지 바이트 등록 (동일 내용은 한 번만 저장)
+   *
+   * @return 이미지 내용 해시 키
+   */
+  public static String put(byte[] bytes) {
+    String key = hash(bytes);
+    synchronized (ImageCache.class) {
+      if (compressed.containsKey(key)) {
+        compressed.get(key); // LRU 순서 갱신
+        return key;
+      }
+    }
+
+    // 헤더만 읽어서 축소 후 크기 계산 (전체 디코딩 없음)
+    Dimension size = readScaledSize(bytes);
+    synchronized (ImageCache.class) {
+      missing.remove(key);
+      scaledSizes.put(key, size);
+      if (compressed.containsKey(key)) {
+        return key; // 크기를 읽는 동안 다른 스레드가 같은 이미지를 등록함 (바이트 수 중복 집계 방지)
+      }
+      compressed.put(key, bytes);
+      compressedBytes += bytes.length;
+      evictCompressed();
+    }
+    return key;
+  }
+
+  /** 파일을 읽어서 등록 (디코더 스레드에서 실행, 완료 시 EDT에서 콜백) */
+  public static void load(java.io.File file, java.util.function.Consumer<String> onReady) {
+    decoder.execute(() -> {
+      try {
+        String key = put(java.nio.file.Files.readAllBytes(file.toPath()));
+        SwingUtilities.invokeLater(() -> onReady.accept(key));
+      } catch (Exception e) {
+        ClientLogger.error("Failed to load image: " + file, e);
+      }
+    });
+  }
+
+  /** 말풍선에 표시될 크기 (디코딩 없이 조회 가능) */
+  public static synchronized Dimension getScaledSize(String key) {
+    Dimension size = scaledSizes.get(key);
+    return size != null ? size : new Dimension(SCALED_WIDTH, SCALED_WIDTH * 3 / 4);
+  }
+
+  /** 축소된 비트맵 조회 (없으면 null) */
+  public static Image getDecoded(String key) {
+    BufferedImage image;
+    synchronized (ImageCache.class) {
+      image = decoded.get(key);
+    }
+    if (image != null) {
+      hits.incrementAndGet();
+    } else {
+      misses.incrementAndGet();
+    }
+    return image;
+  }
+
+  /**
+   * 비동기 디코딩 요청 (이미 진행 중이거나 원본을 구할 수 없는 키면 무시)
+   * 압축 원본이 제거된 경우 등록된 원본 위치에서 다시 읽어서 등록
+   *
+   * @param onReady 디코딩 완료 후 EDT에서 실행할 작업 (예: 리스트 다시 그리기)
+   */
+  public static void requestDecode(String key, Runnable onReady) {
+    byte[] bytes;
+    synchronized (ImageCache.class) {
+      if (decoded.containsKey(key) || missing.contains(key) || !pendingDecodes.add(key))
+        return;
+      bytes = compressed.get(key);
+    }
+
+    decoder.execute(() -> {
+      try {
+        byte[] original = bytes != null ? bytes : reload(key);
+        BufferedImage scaled = original != null ? decodeScaled(original) : null;
+        synchronized (ImageCache.class) {
+          if (scaled != null) {
+            decoded.put(key, scaled);
+            decodedBytes += weightOf(scaled);
+            evictDecoded();
+          } else {
+            // 다시 그릴 때마다 재시도하지 않도록 표시 (같은 내용이 다시 등록되면 해제)
+            missing.add(key);
+          }
+        }
+        if (scaled == null) {
+          ClientLogger.log("IMAGE", "Image unavailable " + key.substring(0, Math.min(8, key.length())));
+        } else {
+          ClientLogger.log("IMAGE", "Decoded " + key.substring(0, 8) + " (" + getStats() + ")");
+          SwingUtilities.invokeLater(onReady);
+        }
+      } catch (Exception e) {
+        ClientLogger.error("Failed to decode image", e);
+        synchronized (ImageCache.class) {
+          missing.add(key);
+        }
+      } finally {
+        synchronized (ImageCache.class) {
+          pendingDecodes.remove(key);
+        }
+      }
+    });
+  }
+
+  /** 제거된 압축 원본을 원본 위치에서 다시 읽어서 등록 (없으면 null) */
+  private static byte[] reload(String key) {
+    java.util.function.Function<String, byte[]> loader = source;
+    byte[] bytes = loader != null ? loader.apply(key) : null;
+    if (bytes != null) {
+      put(bytes);
+    }
+    return bytes;
+  }
+
+  /** 캐시 지표 문자열 */
+  public static synchronized String getStats() {
+    long total = hits.get() + misses.get();
+    double hitRate = total == 0 ? 0 : (hits.get() * 100.0 / total);
+    return String.format("hits=%d misses=%d hitRate=%.1f%% evictions=%d compressed=%dKB/%d decoded=%dKB/%d",
+        hits.get(), misses.get(), hitRate, evictions.get(),
+        compressedBytes / 1024, compressed.size(), decodedBytes / 1024, decoded.size());
+  }
+
+  private static void evictCompressed() {
+    Iterator<Map.Entry<String, byte[]>> it = compressed.entrySet().iterator();
+    while (compressedBytes > COMPRESSED_BUDGET_BYTES && it.hasNext()) {
+      Map.Entry<String, byte[]> eldest = it.next();
+      compressedBytes -= eldest.getValue().length;
+      it.remove();
+      evictions.incrementAndGet();
+    }
+  }
+
+  private static void evictDecoded() {
+    Iterator<Map.Entry<String, BufferedImage>> it = decoded.entrySet().iterator();
+    while (decodedBytes > DECODED_BUDGET_BYTES && it.hasNext()) {
+      Map.Entry<String, BufferedImage> eldest = it.next();
+      decodedBytes -= weightOf(eldest.getValue());
+      it.remove();
+      evictions.incrementAndGet();
+    }
+  }
+
+  private static long weightOf(BufferedImage image) {
+    return (long) image.getWidth() * image.getHeight() * 4;
+  }
+
+  private static BufferedImage decodeScaled(byte[] bytes) throws java.io.IOException {
+    BufferedImage source = ImageIO.read(new ByteArrayInputStream(bytes));
+    if (source == null)
+      return null;
+    int height = Math.max(1, source.getHeight() * SCALED_WIDTH / Math.max(1, source.getWidth()));
+    BufferedImage scaled = new BufferedImage(SCALED_WIDTH, height, BufferedImage.TYPE_INT_ARGB);
+    Graphics2D g2 = scaled.createGraphics();
+    g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+    g2.drawImage(source, 0, 0, SCALED_WIDTH, height, null);
+    g2.dispose();
+    return scaled;
+  }
+
+  private static Dimension readScaledSize(byte[] bytes) {
+    try (ImageInputStream in = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+      Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+      if (readers.hasNext()) {
+        ImageReader reader = readers.next();
+        try {
+          reader.setInput(in);
+          int width = reader.getWidth(0);
+          int height = reader.getHeight(0);
+          return new Dimension(SCALED_WIDTH, Math.max(1, height * SCALED_WIDTH / Math.max(1, width)));
+        } finally {
+          reader.dispose();
+        }
+      }
+    } catch (Exception e) {
+      ClientLogger.error("Failed to read image size: " + e.getMessage());
+    }
+    return new Dimension(SCALED_WIDTH, SCALED_WIDTH * 3 / 4);
+  }
+
+  private static String hash(byte[] bytes) {
+    try {
+      byte[] digest = java.security.MessageDigest.getInstance("SHA-1").digest(bytes);
+      StringBuilder sb = new StringBuilder();
+      for (byte b : digest) {
+        sb.append(String.format("%02x", b));
+      }
+      return sb.toString();
+    } catch (java.security.NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}